@@ -1,48 +1,60 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory serverClientFactory) {
+        super(serverClientFactory, API_PREFIX, false);
     }
 
-    public ResponseEntity<Object> add(long userId, BookItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> consider(long userId, long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> consider(long userId, long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingById(long userId, long bookingId) {
+    public ResponseEntity<StreamingResponseBody> streamBookingChanges(long userId) {
+        return stream("/stream", userId, null, MediaType.TEXT_EVENT_STREAM);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(long userId, ExportFormat format) {
+        return stream("/owner/export?format={format}", userId, Map.of("format", format.name()),
+                format.getMediaType());
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookerBookings(long userId, BookingState state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByIds(long userId, List<Long> bookingIds) {
+        return get("?ids={ids}", userId, Map.of("ids", joinIds(bookingIds)));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllBookerBookings(
+            long userId,
+            BookingState state,
+            Integer from,
+            Integer size) {
         Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from
@@ -60,7 +72,11 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllOwnerBookings(Long userId, BookingState state, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerBookings(
+            Long userId,
+            BookingState state,
+            Integer from,
+            Integer size) {
         Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from
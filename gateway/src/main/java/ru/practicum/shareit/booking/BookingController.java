@@ -3,14 +3,20 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,32 +27,55 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@PostMapping
-	public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") long userId,
 						  @Valid @RequestBody BookItemRequestDto bookingDto) {
 		log.info("Creating booking {}, userId={}", bookingDto, userId);
 		return bookingClient.add(userId, bookingDto);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> consider(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> consider(@RequestHeader("X-Sharer-User-Id") long userId,
 							   @PathVariable("bookingId") long bookingId,
 							   @RequestParam("approved") Boolean approved) {
 		log.info("Considering booking, bookingId={}, approved={}, userId={}", bookingId, approved, userId);
 		return bookingClient.consider(userId, bookingId, approved);
 	}
 
+	@GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<StreamingResponseBody> stream(@RequestHeader("X-Sharer-User-Id") long userId) {
+		log.info("Streaming booking changes, userId={}", userId);
+		return bookingClient.streamBookingChanges(userId);
+	}
+
+	@GetMapping("/owner/export")
+	public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+													@RequestParam(required = false, defaultValue = "NDJSON") String format) {
+		ExportFormat exportFormat = ExportFormat.from(format)
+				.orElseThrow(() -> new ValidationFailException("Unknown export format: " + format));
+		log.info("Exporting owner bookings, userId={}, format={}", userId, exportFormat);
+		return bookingClient.exportOwnerBookings(userId, exportFormat);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") long userId,
 							  @PathVariable("bookingId") long bookingId) {
 		log.info("Getting booking, userId={}, bookingId={}", userId, bookingId);
 		return bookingClient.getBookingById(userId, bookingId);
 	}
 
+	@GetMapping(params = "ids")
+	public CompletableFuture<ResponseEntity<Object>> getByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+										   @RequestParam List<Long> ids) {
+		log.info("Getting bookings, userId={}, ids={}", userId, ids);
+		return bookingClient.getBookingsByIds(userId, ids);
+	}
+
 	@GetMapping
-	public ResponseEntity<Object> getAllBookerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-												 @RequestParam(required = false, defaultValue = "ALL") String state,
-												 @RequestParam(required = false, defaultValue = "0") Integer from,
-												 @RequestParam(required = false) Integer size) {
+	public CompletableFuture<ResponseEntity<Object>> getAllBookerBookings(
+			@RequestHeader("X-Sharer-User-Id") Long userId,
+			@RequestParam(required = false, defaultValue = "ALL") String state,
+			@RequestParam(required = false, defaultValue = "0") Integer from,
+			@RequestParam(required = false) Integer size) {
 		BookingState bookingState = BookingState.from(state)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + state));
 		log.info("Getting bookings with state {}, userId={}, from={}, size={}", state, userId, from, size);
@@ -54,7 +83,7 @@ public class BookingController {
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+	public CompletableFuture<ResponseEntity<Object>> getAllOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
 												@RequestParam(required = false, defaultValue = "ALL") String state,
 												@RequestParam(required = false, defaultValue = "0") Integer from,
 												@RequestParam(required = false) Integer size) {
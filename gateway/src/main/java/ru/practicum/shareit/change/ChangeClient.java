@@ -0,0 +1,35 @@
+package ru.practicum.shareit.change;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class ChangeClient extends BaseClient {
+    private static final String API_PREFIX = "/changes";
+
+    public ChangeClient(ServerClientFactory serverClientFactory) {
+        super(serverClientFactory, API_PREFIX, false);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getChanges(long userId, Long since, Integer size) {
+        if (since < 0) {
+            throw new ValidationFailException("Parameter 'since' can't be negative!");
+        }
+        Map<String, Object> parameters = new HashMap<>(Map.of("since", since));
+        if (size == null) {
+            return get("?since={since}", userId, parameters);
+        }
+        if (size < 0) {
+            throw new ValidationFailException("Parameter 'size' can't be negative!");
+        }
+        parameters.put("size", size);
+        return get("?since={since}&size={size}", userId, parameters);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.change;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/changes")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ChangeController {
+    private final ChangeClient changeClient;
+
+    @GetMapping
+    public CompletableFuture<ResponseEntity<Object>> getChanges(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(required = false, defaultValue = "0") Long since,
+            @RequestParam(required = false) Integer size) {
+        log.info("Getting changes, userId={}, since={}, size={}", userId, since, size);
+        return changeClient.getChanges(userId, since, size);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Sends each request to the server instance chosen by {@link ServerBalancer}. Wraps the request instead of
+ * intercepting it, so request bodies stay unbuffered. A request counts as in flight until its response is closed.
+ */
+class BalancingClientHttpRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+    private final ServerBalancer serverBalancer;
+
+    BalancingClientHttpRequestFactory(ClientHttpRequestFactory requestFactory, ServerBalancer serverBalancer) {
+        super(requestFactory);
+        this.serverBalancer = serverBalancer;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        ServerBackend backend = serverBalancer.choose();
+        return new BalancedRequest(requestFactory.createRequest(backend.resolve(uri), httpMethod), backend);
+    }
+
+    private class BalancedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+        private final ClientHttpRequest request;
+        private final ServerBackend backend;
+
+        private BalancedRequest(ClientHttpRequest request, ServerBackend backend) {
+            this.request = request;
+            this.backend = backend;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            long start = System.nanoTime();
+            backend.requestStarted();
+            ClientHttpResponse response;
+            try {
+                response = request.execute();
+            } catch (IOException | RuntimeException e) {
+                backend.requestFinished();
+                serverBalancer.recordFailure(backend, System.nanoTime() - start);
+                throw e;
+            }
+            if (response.getRawStatusCode() >= 500) {
+                serverBalancer.recordFailure(backend, System.nanoTime() - start);
+            } else {
+                serverBalancer.recordSuccess(backend, System.nanoTime() - start);
+            }
+            return new BalancedResponse(response, backend);
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (request instanceof StreamingHttpOutputMessage) {
+                ((StreamingHttpOutputMessage) request).setBody(body);
+            } else {
+                try {
+                    body.writeTo(request.getBody());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return request.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+    }
+
+    private static class BalancedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final ServerBackend backend;
+        private boolean closed;
+
+        private BalancedResponse(ClientHttpResponse response, ServerBackend backend) {
+            this.response = response;
+            this.backend = backend;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                backend.requestFinished();
+            }
+            response.close();
+        }
+    }
+}
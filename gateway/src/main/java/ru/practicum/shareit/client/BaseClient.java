@@ -1,98 +1,301 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exceptions.ValidationFailException;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int MAX_IDS_PER_REQUEST = 100;
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.LOCATION, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.RETRY_AFTER);
+
     protected final RestTemplate rest;
+    @Nullable
+    private final WebClient webClient;
+    @Nullable
+    private final RequestCoalescer requestCoalescer;
+    @Nullable
+    private final ValidatorCache validatorCache;
+    @Nullable
+    private final RouteGuards routeGuards;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null, null);
+    }
+
+    /**
+     * A client of the server resources under {@code apiPrefix}, wired by the factory with everything described
+     * below. With {@code streamingUploads} request bodies are streamed to the server rather than buffered.
+     */
+    public BaseClient(ServerClientFactory clientFactory, String apiPrefix, boolean streamingUploads) {
+        this(clientFactory.restTemplate(apiPrefix, streamingUploads), clientFactory.webClient(apiPrefix),
+                clientFactory.getRequestCoalescer(), clientFactory.getValidatorCache(), clientFactory.getRouteGuards());
+    }
+
+    /**
+     * With a web client, requests other than streamed exports and uploads are sent without blocking the calling
+     * thread; otherwise they are sent with the rest template and the returned future is already completed. With a
+     * coalescer, identical concurrent GET requests share one answer of the server. With a validator cache, GET
+     * requests whose last answer came with an entity tag are sent as conditional requests. With route guards, requests
+     * of a route that is overloaded or keeps failing are answered with 503 without being sent.
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable RequestCoalescer requestCoalescer,
+                      @Nullable ValidatorCache validatorCache, @Nullable RouteGuards routeGuards) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.requestCoalescer = requestCoalescer;
+        this.validatorCache = validatorCache;
+        this.routeGuards = routeGuards;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /*
+    The server is asked and its status read before the answer to the client is started, so an error of the server
+    reaches the client with its own status and body rather than as a broken 200 stream. Only the body of a successful
+    answer is streamed; the server's response stays open until it has been copied.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId,
+                                                           @Nullable Map<String, Object> parameters,
+                                                           MediaType mediaType) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+        ClientHttpResponse serverResponse = response;
+        try {
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(serverResponse.getRawStatusCode())
+                    .headers(passthroughHeaders(serverResponse.getHeaders()));
+            if (serverResponse.getRawStatusCode() >= 300) {
+                byte[] body = StreamUtils.copyToByteArray(serverResponse.getBody());
+                serverResponse.close();
+                return responseBuilder.body(outputStream -> outputStream.write(body));
+            }
+            return responseBuilder.body(outputStream -> {
+                try (serverResponse; InputStream inputStream = serverResponse.getBody()) {
+                    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                    int read;
+                    while ((read = inputStream.read(buffer)) != -1) {
+                        outputStream.write(buffer, 0, read);
+                        outputStream.flush();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            serverResponse.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    protected ResponseEntity<Object> upload(String path, long userId, @Nullable Map<String, Object> parameters,
+                                            MediaType contentType, InputStream body) {
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            return rest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().setContentType(contentType);
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                body.transferTo(request.getBody());
+            }, BaseClient::passthrough, parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            return passthrough(e);
+        }
+    }
+
+    protected static String joinIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new ValidationFailException(String.format("Parameter 'ids' must contain from 1 to %s ids!",
+                    MAX_IDS_PER_REQUEST));
+        }
+        if (ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new ValidationFailException("Parameter 'ids' must contain only positive ids!");
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path,
+                                                                             Long userId,
+                                                                             @Nullable Map<String, Object> parameters,
+                                                                             @Nullable T body) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        RouteGuard guard = routeGuards != null ? routeGuards.forRequest(method, uri) : null;
+        if (method == HttpMethod.GET && (requestCoalescer != null || validatorCache != null)) {
+            Supplier<CompletableFuture<ResponseEntity<Object>>> request = () -> sendRevalidating(uri.toString(), guard,
+                    path, userId, parameters);
+            return requestCoalescer != null ? requestCoalescer.coalesce(uri.toString(), userId, request)
+                    : request.get();
+        }
+        return sendGuarded(guard, method, path, defaultHeaders(userId), parameters, body);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> sendRevalidating(String uri, @Nullable RouteGuard guard,
+                                                                       String path, Long userId,
+                                                                       @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (validatorCache == null) {
+            return sendGuarded(guard, HttpMethod.GET, path, headers, parameters, null);
+        }
+        ValidatorCache.CachedResponse cachedResponse = validatorCache.get(uri, userId);
+        if (cachedResponse != null) {
+            if (validatorCache.isFresh(cachedResponse)) {
+                return CompletableFuture.completedFuture(cachedResponse.getResponse());
             }
+            headers.setIfNoneMatch(cachedResponse.getETag());
+        }
+        return sendGuarded(guard, HttpMethod.GET, path, headers, parameters, null)
+                .thenApply(response -> validatorCache.revalidated(uri, userId, cachedResponse, response));
+    }
+
+    /*
+    Connection errors, timeouts and 5xx answers count as failures of the route; answers that took too long count as
+    failures too, however they ended.
+     */
+    private <T> CompletableFuture<ResponseEntity<Object>> sendGuarded(@Nullable RouteGuard guard, HttpMethod method,
+                                                                      String path, HttpHeaders headers,
+                                                                      @Nullable Map<String, Object> parameters,
+                                                                      @Nullable T body) {
+        if (guard == null) {
+            return sendNow(method, path, headers, parameters, body);
+        }
+        RouteGuard.Permit permit = guard.tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(guard.secondsUntilRetry()))
+                    .body(Map.of("error", "Route " + guard.getRoute()
+                            + " of the server is unavailable, retry later.")));
+        }
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = sendNow(method, path, headers, parameters, body);
+        } catch (RuntimeException e) {
+            guard.release(permit, false);
+            throw e;
+        }
+        return response.whenComplete((result, e) -> guard.release(permit,
+                e == null && result.getStatusCodeValue() < 500));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> sendNow(HttpMethod method, String path, HttpHeaders headers,
+                                                                  @Nullable Map<String, Object> parameters,
+                                                                  @Nullable T body) {
+        if (webClient != null) {
+            return sendWithoutBlocking(method, path, headers, parameters, body);
+        }
+        return CompletableFuture.completedFuture(send(method, path, headers, parameters, body));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> sendWithoutBlocking(HttpMethod method, String path,
+                                                                              HttpHeaders headers,
+                                                                              @Nullable Map<String, Object> parameters,
+                                                                              @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(bytes -> passthrough(response.rawStatusCode(), response.headers().asHttpHeaders(),
+                                bytes)))
+                .toFuture();
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                            @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        try {
+            return rest.execute(path, method, rest.httpEntityCallback(requestEntity), BaseClient::passthrough,
+                    parameters != null ? parameters : Map.of());
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return passthrough(e);
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +308,38 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    /*
+    The server's answer is passed on as bytes: the gateway never looks into response bodies, so parsing them into
+    maps and lists only to write them out again costs CPU and garbage for nothing.
+     */
+    private static ResponseEntity<Object> passthrough(ClientHttpResponse response) throws IOException {
+        return passthrough(response.getRawStatusCode(), response.getHeaders(),
+                StreamUtils.copyToByteArray(response.getBody()));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> passthrough(HttpStatusCodeException e) {
+        return passthrough(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> passthrough(int status, @Nullable HttpHeaders serverHeaders, byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(passthroughHeaders(serverHeaders));
+        if (body.length == 0) {
+            return responseBuilder.build();
         }
+        return responseBuilder.body(body);
+    }
 
-        return responseBuilder.build();
+    private static HttpHeaders passthroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            for (String name : PASSTHROUGH_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
+        }
+        return headers;
     }
 }
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Compresses bodies written by message converters, which are set as a whole, with {@link ServerCompression}. Bodies
+ * written to {@link ClientHttpRequest#getBody()} are streamed uploads and go to the server as they are.
+ */
+class CompressingClientHttpRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+    private final ServerCompression serverCompression;
+
+    CompressingClientHttpRequestFactory(ClientHttpRequestFactory requestFactory, ServerCompression serverCompression) {
+        super(requestFactory);
+        this.serverCompression = serverCompression;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        return new CompressingRequest(requestFactory.createRequest(uri, httpMethod));
+    }
+
+    private class CompressingRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+        private final ClientHttpRequest request;
+        @Nullable
+        private Body body;
+
+        private CompressingRequest(ClientHttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            if (body != null) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                body.writeTo(buffer);
+                byte[] encoded = serverCompression.encode(request.getHeaders(), buffer.toByteArray());
+                if (request instanceof StreamingHttpOutputMessage) {
+                    ((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write(encoded));
+                } else {
+                    request.getBody().write(encoded);
+                }
+            }
+            return request.execute();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public String getMethodValue() {
+            return request.getMethodValue();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/*
+One connection pool for all clients, so that the limits apply to the gateway as a whole and idle connections to a
+server instance are reused by every client. Each server instance is a separate route.
+ */
+@Configuration
+public class HttpClientConfig {
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity-millis:2000}") int validateAfterInactivityMillis,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new LeaseTimingConnectionManager(meterRegistry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /*
+    The read timeout limits the silence between two packets, not the whole response, so streamed exports and the
+    booking event stream (with its heartbeats) are not cut off.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(
+            PoolingHttpClientConnectionManager serverConnectionManager,
+            @Value("${shareit-server.connect-timeout-millis:2000}") int connectTimeoutMillis,
+            @Value("${shareit-server.read-timeout-millis:60000}") int readTimeoutMillis,
+            @Value("${shareit-server.pool.lease-timeout-millis:5000}") int leaseTimeoutMillis,
+            @Value("${shareit-server.pool.keep-alive-millis:30000}") long keepAliveMillis,
+            @Value("${shareit-server.pool.idle-eviction-millis:60000}") long idleEvictionMillis) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setSocketTimeout(readTimeoutMillis)
+                        .setConnectionRequestTimeout(leaseTimeoutMillis)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionMillis, TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    private static class LeaseTimingConnectionManager extends PoolingHttpClientConnectionManager {
+        private final Timer leaseWait;
+        private final Timer leaseTimeouts;
+
+        private LeaseTimingConnectionManager(MeterRegistry meterRegistry) {
+            this.leaseWait = Timer.builder("shareit.gateway.pool.lease-wait")
+                    .description("Time spent waiting for a pooled connection to a server instance")
+                    .tag("outcome", "leased")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.leaseTimeouts = Timer.builder("shareit.gateway.pool.lease-wait")
+                    .description("Time spent waiting for a pooled connection to a server instance")
+                    .tag("outcome", "timeout")
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        HttpClientConnection connection = request.get(timeout, timeUnit);
+                        leaseWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return connection;
+                    } catch (ConnectionPoolTimeoutException e) {
+                        leaseTimeouts.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        throw e;
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
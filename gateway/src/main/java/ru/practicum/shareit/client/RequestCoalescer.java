@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical GET requests that arrive while the first of them is still waiting for the server share its answer
+ * instead of sending their own. Requests are identical if they have the same URI and the same user header, so
+ * answers that depend on the user are only shared between requests of that user. Nothing is kept once the answer
+ * has arrived: a request sent after that goes to the server again.
+ */
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final Map<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter coalesced;
+
+    public RequestCoalescer(@Value("${shareit-server.coalescing.enabled:true}") boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.sent = Counter.builder("shareit.gateway.coalescing.requests")
+                .description("GET requests sent to the server or answered with the response of an identical one")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("shareit.gateway.coalescing.requests")
+                .description("GET requests sent to the server or answered with the response of an identical one")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, RequestCoalescer::ratio)
+                .description("Share of GET requests answered with the response of an identical one")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> coalesce(String uri, Long userId,
+                                                              Supplier<CompletableFuture<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        String key = userId == null ? uri : uri + "|" + userId;
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> sameRequest = inFlight.putIfAbsent(key, response);
+        if (sameRequest != null) {
+            coalesced.increment();
+            return sameRequest;
+        }
+        sent.increment();
+        CompletableFuture<ResponseEntity<Object>> serverResponse;
+        try {
+            serverResponse = request.get();
+        } catch (RuntimeException e) {
+            serverResponse = CompletableFuture.failedFuture(e);
+        }
+        serverResponse.whenComplete((result, e) -> {
+            inFlight.remove(key, response);
+            if (e != null) {
+                response.completeExceptionally(e);
+            } else {
+                response.complete(result);
+            }
+        });
+        return response;
+    }
+
+    private double ratio() {
+        double total = sent.count() + coalesced.count();
+        return total == 0 ? 0 : coalesced.count() / total;
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulkhead and circuit breaker of one route of the server. The bulkhead caps the requests of the route in flight, so
+ * a slow route cannot take all threads and pooled connections of the gateway. The circuit breaker opens when too
+ * many of the last requests failed or were slow, rejects all requests while open, and then lets a few probes
+ * through: if they succeed, it closes again, otherwise it opens for another period.
+ */
+@Slf4j
+class RouteGuard {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String route;
+    private final RouteGuards.Settings settings;
+    private final Semaphore bulkhead;
+    private final boolean[] failures;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    RouteGuard(String route, RouteGuards.Settings settings, MeterRegistry meterRegistry) {
+        this.route = route;
+        this.settings = settings;
+        this.bulkhead = new Semaphore(settings.maxConcurrentCalls);
+        this.failures = new boolean[settings.windowSize];
+        Gauge.builder("shareit.gateway.bulkhead.in-flight", bulkhead,
+                        semaphore -> settings.maxConcurrentCalls - semaphore.availablePermits())
+                .description("Requests of the route sent to the server and not answered yet")
+                .tag("route", route)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.circuit-breaker.state", this, guard -> guard.getState().ordinal())
+                .description("State of the circuit breaker of the route: 0 closed, 1 open, 2 half-open")
+                .tag("route", route)
+                .register(meterRegistry);
+        for (State to : State.values()) {
+            transitions.put(to, Counter.builder("shareit.gateway.circuit-breaker.transitions")
+                    .description("State changes of the circuit breaker of the route")
+                    .tag("route", route)
+                    .tag("to", to.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.bulkheadRejections = rejectionCounter(route, "bulkhead-full", meterRegistry);
+        this.circuitRejections = rejectionCounter(route, "circuit-open", meterRegistry);
+    }
+
+    private static Counter rejectionCounter(String route, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("shareit.gateway.route.rejections")
+                .description("Requests of the route failed fast without being sent to the server")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    String getRoute() {
+        return route;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns a permit to send a request, or {@code null} if the request has to fail fast. Every permit must be
+     * given back with {@link #release}.
+     */
+    @Nullable
+    Permit tryAcquire() {
+        boolean probe;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < settings.openNanos) {
+                    circuitRejections.increment();
+                    return null;
+                }
+                transition(State.HALF_OPEN);
+            }
+            probe = state == State.HALF_OPEN;
+            if (probe) {
+                if (probesInFlight >= settings.halfOpenCalls) {
+                    circuitRejections.increment();
+                    return null;
+                }
+                probesInFlight++;
+            }
+        }
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            if (probe) {
+                synchronized (this) {
+                    probesInFlight--;
+                }
+            }
+            return null;
+        }
+        return new Permit(probe, System.nanoTime());
+    }
+
+    void release(Permit permit, boolean succeeded) {
+        bulkhead.release();
+        boolean failed = !succeeded || System.nanoTime() - permit.startedAt >= settings.slowCallNanos;
+        synchronized (this) {
+            if (permit.probe) {
+                probesInFlight--;
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failed) {
+                    open();
+                } else if (++probeSuccesses >= settings.halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (windowCalls == failures.length) {
+                if (failures[windowIndex]) {
+                    windowFailures--;
+                }
+            } else {
+                windowCalls++;
+            }
+            failures[windowIndex] = failed;
+            if (failed) {
+                windowFailures++;
+            }
+            windowIndex = (windowIndex + 1) % failures.length;
+            if (windowCalls >= settings.minimumCalls
+                    && windowFailures * 100 >= settings.failureRateThreshold * windowCalls) {
+                log.warn("Circuit of route {} opened: {} of the last {} requests failed or were slow.", route,
+                        windowFailures, windowCalls);
+                open();
+            }
+        }
+    }
+
+    /**
+     * Seconds until an open circuit lets probes through again.
+     */
+    synchronized long secondsUntilRetry() {
+        long remainingNanos = state == State.OPEN ? settings.openNanos - (System.nanoTime() - openedAt) : 0;
+        return Math.max(1, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        if (to == State.CLOSED) {
+            windowIndex = 0;
+            windowCalls = 0;
+            windowFailures = 0;
+            log.info("Circuit of route {} closed again.", route);
+        }
+        if (to == State.HALF_OPEN) {
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        state = to;
+        transitions.get(to).increment();
+    }
+
+    static class Permit {
+        private final boolean probe;
+        private final long startedAt;
+
+        private Permit(boolean probe, long startedAt) {
+            this.probe = probe;
+            this.startedAt = startedAt;
+        }
+    }
+}
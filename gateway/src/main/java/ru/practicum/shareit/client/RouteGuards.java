@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bulkheads and circuit breakers of all routes of the server. A route is a method and a path with ids replaced by a
+ * placeholder, so {@code GET /bookings/owner} and {@code GET /items/{id}} each have their own guard whatever the
+ * query and the id. All routes share the settings in {@code shareit-server.bulkhead.*} and
+ * {@code shareit-server.circuit-breaker.*}.
+ */
+@Component
+public class RouteGuards {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final boolean enabled;
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteGuard> guards = new ConcurrentHashMap<>();
+
+    public RouteGuards(@Value("${shareit-server.route-guards.enabled:true}") boolean enabled,
+                       @Value("${shareit-server.bulkhead.max-concurrent-calls:30}") int maxConcurrentCalls,
+                       @Value("${shareit-server.circuit-breaker.window-size:50}") int windowSize,
+                       @Value("${shareit-server.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                       @Value("${shareit-server.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                       @Value("${shareit-server.circuit-breaker.slow-call-millis:5000}") long slowCallMillis,
+                       @Value("${shareit-server.circuit-breaker.open-millis:10000}") long openMillis,
+                       @Value("${shareit-server.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.settings = new Settings(maxConcurrentCalls, windowSize, Math.min(minimumCalls, windowSize),
+                failureRateThreshold, TimeUnit.MILLISECONDS.toNanos(slowCallMillis),
+                TimeUnit.MILLISECONDS.toNanos(openMillis), halfOpenCalls);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Nullable
+    RouteGuard forRequest(HttpMethod method, URI uri) {
+        if (!enabled) {
+            return null;
+        }
+        String route = method.name() + " " + ID_SEGMENT.matcher(uri.getPath()).replaceAll("/{id}");
+        RouteGuard guard = guards.get(route);
+        return guard != null ? guard : guards.computeIfAbsent(route, r -> new RouteGuard(r, settings, meterRegistry));
+    }
+
+    static class Settings {
+        final int maxConcurrentCalls;
+        final int windowSize;
+        final int minimumCalls;
+        final int failureRateThreshold;
+        final long slowCallNanos;
+        final long openNanos;
+        final int halfOpenCalls;
+
+        private Settings(int maxConcurrentCalls, int windowSize, int minimumCalls, int failureRateThreshold,
+                         long slowCallNanos, long openNanos, int halfOpenCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            this.failureRateThreshold = failureRateThreshold;
+            this.slowCallNanos = slowCallNanos;
+            this.openNanos = openNanos;
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One server instance with the state the balancer needs to choose it: requests in flight, the result of the last
+ * health check and the passive ejection after consecutive failures.
+ */
+class ServerBackend {
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    private final URI uri;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger ejections = new AtomicInteger();
+    private final Timer successLatency;
+    private final Timer failureLatency;
+    private final Counter ejectionCounter;
+    private volatile boolean healthy = true;
+    private volatile long ejectedUntilMillis;
+
+    ServerBackend(URI uri, MeterRegistry meterRegistry) {
+        this.uri = uri;
+        String backend = uri.toString();
+        Gauge.builder("shareit.gateway.backend.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests sent to the server instance and not answered yet")
+                .tag("backend", backend)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.backend.available", this,
+                        server -> server.isAvailable(System.currentTimeMillis()) ? 1 : 0)
+                .description("1 if the server instance is healthy and not ejected, 0 otherwise")
+                .tag("backend", backend)
+                .register(meterRegistry);
+        this.successLatency = latencyTimer(backend, "success", meterRegistry);
+        this.failureLatency = latencyTimer(backend, "failure", meterRegistry);
+        this.ejectionCounter = Counter.builder("shareit.gateway.backend.ejections")
+                .tag("backend", backend)
+                .register(meterRegistry);
+    }
+
+    private static Timer latencyTimer(String backend, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("shareit.gateway.backend.latency")
+                .description("Time until the server instance answered with status and headers")
+                .tag("backend", backend)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Replaces scheme, host and port of a URI built against {@link ServerBalancer#SERVER_URL} with this instance's.
+     */
+    URI resolve(URI uri) {
+        return UriComponentsBuilder.fromUri(uri)
+                .scheme(this.uri.getScheme())
+                .host(this.uri.getHost())
+                .port(this.uri.getPort())
+                .replacePath(this.uri.getRawPath() + uri.getRawPath())
+                .build(true)
+                .toUri();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    boolean isAvailable(long nowMillis) {
+        return healthy && nowMillis >= ejectedUntilMillis;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    void recordSuccess(long nanos) {
+        successLatency.record(nanos, TimeUnit.NANOSECONDS);
+        consecutiveFailures.set(0);
+        ejections.set(0);
+    }
+
+    /**
+     * Returns true if the failure ejected the instance. Each ejection in a row lasts one base period longer than
+     * the previous one, up to ten periods, so an instance that keeps failing gets fewer probing requests.
+     */
+    boolean recordFailure(long nanos, int failuresToEject, long baseEjectionMillis) {
+        failureLatency.record(nanos, TimeUnit.NANOSECONDS);
+        if (consecutiveFailures.incrementAndGet() < failuresToEject) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        ejectedUntilMillis = System.currentTimeMillis() + baseEjectionMillis
+                * Math.min(ejections.incrementAndGet(), MAX_EJECTION_MULTIPLIER);
+        ejectionCounter.increment();
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return uri.toString();
+    }
+}
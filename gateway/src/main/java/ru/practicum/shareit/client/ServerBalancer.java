@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads requests of all clients over the server instances listed in {@code shareit-server.urls}. Clients build
+ * their URIs against {@link #SERVER_URL}; the request factory returned by {@link #balance} and the web client
+ * {@link #filter} replace it with the chosen instance. Of two random available instances the one with fewer
+ * requests in flight is chosen. An instance is unavailable while its health check fails or after consecutive failed
+ * requests (connection errors and 5xx answers) for an ejection period. If no instance is available, all of them are
+ * tried rather than none.
+ */
+@Slf4j
+@Component
+public class ServerBalancer implements DisposableBean {
+    public static final String SERVER_URL = "http://shareit-server";
+
+    private final List<ServerBackend> backends = new ArrayList<>();
+    private final int failuresToEject;
+    private final long baseEjectionMillis;
+    private final String healthCheckPath;
+    private final RestTemplate healthCheckRest;
+    private final ScheduledExecutorService healthChecker;
+
+    public ServerBalancer(@Value("${shareit-server.urls}") List<String> serverUrls,
+                          @Value("${shareit-server.ejection.consecutive-failures:5}") int failuresToEject,
+                          @Value("${shareit-server.ejection.base-millis:10000}") long baseEjectionMillis,
+                          @Value("${shareit-server.health-check.path:/actuator/health/readiness}") String healthCheckPath,
+                          @Value("${shareit-server.health-check.interval-millis:5000}") long healthCheckIntervalMillis,
+                          @Value("${shareit-server.health-check.timeout-millis:1000}") int healthCheckTimeoutMillis,
+                          MeterRegistry meterRegistry) {
+        for (String serverUrl : serverUrls) {
+            if (serverUrl.isBlank()) {
+                continue;
+            }
+            String url = serverUrl.trim();
+            backends.add(new ServerBackend(URI.create(url.endsWith("/") ? url.substring(0, url.length() - 1) : url),
+                    meterRegistry));
+        }
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("Property 'shareit-server.urls' must contain at least one url!");
+        }
+        this.failuresToEject = failuresToEject;
+        this.baseEjectionMillis = baseEjectionMillis;
+        this.healthCheckPath = healthCheckPath;
+        SimpleClientHttpRequestFactory healthCheckRequestFactory = new SimpleClientHttpRequestFactory();
+        healthCheckRequestFactory.setConnectTimeout(healthCheckTimeoutMillis);
+        healthCheckRequestFactory.setReadTimeout(healthCheckTimeoutMillis);
+        this.healthCheckRest = new RestTemplate(healthCheckRequestFactory);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "server-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckIntervalMillis, healthCheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public ClientHttpRequestFactory balance(ClientHttpRequestFactory requestFactory) {
+        return new BalancingClientHttpRequestFactory(requestFactory, this);
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            ServerBackend backend = choose();
+            long start = System.nanoTime();
+            backend.requestStarted();
+            return next.exchange(ClientRequest.from(request).url(backend.resolve(request.url())).build())
+                    .doOnNext(response -> {
+                        if (response.rawStatusCode() >= 500) {
+                            recordFailure(backend, System.nanoTime() - start);
+                        } else {
+                            recordSuccess(backend, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> recordFailure(backend, System.nanoTime() - start))
+                    .doFinally(signal -> backend.requestFinished());
+        };
+    }
+
+    ServerBackend choose() {
+        long now = System.currentTimeMillis();
+        List<ServerBackend> candidates = new ArrayList<>(backends.size());
+        for (ServerBackend backend : backends) {
+            if (backend.isAvailable(now)) {
+                candidates.add(backend);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = backends;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerBackend firstBackend = candidates.get(first);
+        ServerBackend secondBackend = candidates.get(second);
+        return secondBackend.getInFlight() < firstBackend.getInFlight() ? secondBackend : firstBackend;
+    }
+
+    void recordSuccess(ServerBackend backend, long nanos) {
+        backend.recordSuccess(nanos);
+    }
+
+    void recordFailure(ServerBackend backend, long nanos) {
+        if (backend.recordFailure(nanos, failuresToEject, baseEjectionMillis)) {
+            log.warn("Server {} ejected after {} failed requests in a row.", backend, failuresToEject);
+        }
+    }
+
+    private void checkHealth() {
+        for (ServerBackend backend : backends) {
+            boolean healthy;
+            try {
+                healthy = healthCheckRest.getForEntity(backend.getUri() + healthCheckPath, String.class)
+                        .getStatusCode().is2xxSuccessful();
+            } catch (RestClientException e) {
+                healthy = false;
+            }
+            if (healthy != backend.isHealthy()) {
+                log.info("Server {} is {}.", backend, healthy ? "healthy again" : "unhealthy");
+                backend.setHealthy(healthy);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import org.apache.http.client.HttpClient;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+/**
+ * Wires the clients of the server API. Each client gets a rest template and, in the non-blocking mode, a web client
+ * for its path prefix, both balanced over the server instances and compressing request bodies, and shares the
+ * coalescer, the validator cache, and the route guards with every other client.
+ */
+@Component
+public class ServerClientFactory {
+    private final ServerBalancer serverBalancer;
+    private final HttpClient serverHttpClient;
+    private final ServerWebClientFactory serverWebClientFactory;
+    private final ServerCompression serverCompression;
+    private final RestTemplateBuilder restTemplateBuilder;
+    @Getter
+    private final RequestCoalescer requestCoalescer;
+    @Getter
+    private final ValidatorCache validatorCache;
+    @Getter
+    private final RouteGuards routeGuards;
+
+    public ServerClientFactory(ServerBalancer serverBalancer, HttpClient serverHttpClient,
+                               ServerWebClientFactory serverWebClientFactory, ServerCompression serverCompression,
+                               RestTemplateBuilder restTemplateBuilder, RequestCoalescer requestCoalescer,
+                               ValidatorCache validatorCache, RouteGuards routeGuards) {
+        this.serverBalancer = serverBalancer;
+        this.serverHttpClient = serverHttpClient;
+        this.serverWebClientFactory = serverWebClientFactory;
+        this.serverCompression = serverCompression;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.requestCoalescer = requestCoalescer;
+        this.validatorCache = validatorCache;
+        this.routeGuards = routeGuards;
+    }
+
+    /**
+     * With {@code streamingUploads} request bodies are written to the server as they are produced instead of being
+     * buffered first, for uploads that may not fit in memory.
+     */
+    public RestTemplate restTemplate(String apiPrefix, boolean streamingUploads) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(ServerBalancer.SERVER_URL + apiPrefix))
+                .requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory requestFactory =
+                            new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+                    requestFactory.setBufferRequestBody(!streamingUploads);
+                    return serverCompression.compress(serverBalancer.balance(requestFactory));
+                })
+                .build();
+    }
+
+    @Nullable
+    public WebClient webClient(String apiPrefix) {
+        return serverWebClientFactory.create(apiPrefix);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses JSON request bodies sent to the server with gzip once they reach {@code shareit-server.compression.
+ * min-size} bytes; smaller bodies cost more to compress than they save. Responses of the server are compressed by
+ * the server and decompressed by the HTTP clients, which ask for gzip by themselves. Streamed uploads are sent as
+ * they are.
+ */
+@Component
+public class ServerCompression {
+    static final String GZIP = "gzip";
+
+    private final boolean enabled;
+    private final int minSize;
+    private final Counter rawBytes;
+    private final Counter compressedBytes;
+
+    public ServerCompression(@Value("${shareit-server.compression.enabled:true}") boolean enabled,
+                             @Value("${shareit-server.compression.min-size:1024}") int minSize,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.rawBytes = Counter.builder("shareit.gateway.compression.request-bytes")
+                .description("Bytes of request bodies sent to the server compressed, before and after compression")
+                .tag("stage", "raw")
+                .register(meterRegistry);
+        this.compressedBytes = Counter.builder("shareit.gateway.compression.request-bytes")
+                .description("Bytes of request bodies sent to the server compressed, before and after compression")
+                .tag("stage", "compressed")
+                .register(meterRegistry);
+    }
+
+    public ClientHttpRequestFactory compress(ClientHttpRequestFactory requestFactory) {
+        return enabled ? new CompressingClientHttpRequestFactory(requestFactory, this) : requestFactory;
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            if (!enabled || request.headers().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .body((outputMessage, context) -> request.body()
+                            .insert(new CompressingRequest(outputMessage), context))
+                    .build());
+        };
+    }
+
+    /**
+     * Returns the body to send: compressed, with the content encoding set, if it is large enough and JSON, as it is
+     * otherwise. The content length is set to the length of the returned body.
+     */
+    byte[] encode(HttpHeaders headers, byte[] body) {
+        MediaType contentType = headers.getContentType();
+        if (body.length < minSize || contentType == null
+                || !MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            if (headers.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+                headers.setContentLength(body.length);
+            }
+            return body;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] result = compressed.toByteArray();
+        rawBytes.increment(body.length);
+        compressedBytes.increment(result.length);
+        headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        headers.setContentLength(result.length);
+        return result;
+    }
+
+    private class CompressingRequest extends ClientHttpRequestDecorator {
+        private CompressingRequest(ClientHttpRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body).flatMap(buffer -> {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                return super.writeWith(Mono.just(bufferFactory().wrap(encode(getHeaders(), bytes))));
+            });
+        }
+    }
+}
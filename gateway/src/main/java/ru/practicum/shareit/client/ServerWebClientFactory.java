@@ -0,0 +1,78 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Builds the web clients of the non-blocking mode ({@code shareit-server.non-blocking=true}). All of them share one
+ * connection pool with the limits and timeouts of the blocking client and, like it, ask for compressed responses and
+ * compress large request bodies; in the blocking mode no web client is built.
+ */
+@Component
+public class ServerWebClientFactory implements DisposableBean {
+    @Nullable
+    private final ConnectionProvider connectionProvider;
+    @Nullable
+    private final HttpClient httpClient;
+    private final WebClient.Builder webClientBuilder;
+    private final ServerBalancer serverBalancer;
+    private final ServerCompression serverCompression;
+
+    public ServerWebClientFactory(@Value("${shareit-server.non-blocking:false}") boolean nonBlocking,
+                                  @Value("${shareit-server.connect-timeout-millis:2000}") int connectTimeoutMillis,
+                                  @Value("${shareit-server.read-timeout-millis:60000}") long readTimeoutMillis,
+                                  @Value("${shareit-server.pool.max-per-route:100}") int maxPerRoute,
+                                  @Value("${shareit-server.pool.lease-timeout-millis:5000}") long leaseTimeoutMillis,
+                                  @Value("${shareit-server.pool.idle-eviction-millis:60000}") long idleEvictionMillis,
+                                  WebClient.Builder webClientBuilder, ServerBalancer serverBalancer,
+                                  ServerCompression serverCompression) {
+        this.webClientBuilder = webClientBuilder;
+        this.serverBalancer = serverBalancer;
+        this.serverCompression = serverCompression;
+        if (!nonBlocking) {
+            this.connectionProvider = null;
+            this.httpClient = null;
+            return;
+        }
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxPerRoute)
+                .pendingAcquireTimeout(Duration.ofMillis(leaseTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(idleEvictionMillis))
+                .evictInBackground(Duration.ofMillis(idleEvictionMillis))
+                .metrics(true)
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(readTimeoutMillis))
+                .compress(true);
+    }
+
+    @Nullable
+    public WebClient create(String apiPrefix) {
+        if (httpClient == null) {
+            return null;
+        }
+        return webClientBuilder.clone()
+                .baseUrl(ServerBalancer.SERVER_URL + apiPrefix)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(serverBalancer.filter())
+                .filter(serverCompression.filter())
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last answer of the server to a GET request that came with an entity tag, so that the next identical
+ * request only asks the server whether the tag is still current. If it is, the server answers 304 without looking
+ * up more than entity versions and without a body, and the cached answer is returned. Answers younger than
+ * {@code shareit-server.validator-cache.fresh-millis} are returned without asking the server at all; by default
+ * every request is revalidated. Requests are identical under the same rule as for {@link RequestCoalescer}.
+ */
+@Component
+public class ValidatorCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    @Nullable
+    private final Cache<String, CachedResponse> cache;
+    private final long freshNanos;
+    private final Counter notModified;
+    private final Counter modified;
+    private final Counter fresh;
+
+    public ValidatorCache(@Value("${shareit-server.validator-cache.enabled:true}") boolean enabled,
+                          @Value("${shareit-server.validator-cache.max-weight-bytes:16777216}") long maxWeightBytes,
+                          @Value("${shareit-server.validator-cache.expire-after-access-millis:600000}")
+                          long expireAfterAccessMillis,
+                          @Value("${shareit-server.validator-cache.fresh-millis:0}") long freshMillis,
+                          MeterRegistry meterRegistry) {
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(maxWeightBytes)
+                    .weigher((String key, CachedResponse response) -> response.weight)
+                    .expireAfterAccess(expireAfterAccessMillis, TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayValidators");
+        } else {
+            this.cache = null;
+        }
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMillis);
+        this.notModified = Counter.builder("shareit.gateway.validator-cache.revalidations")
+                .description("Cached answers revalidated with the server, by whether they were still current")
+                .tag("result", "not-modified")
+                .register(meterRegistry);
+        this.modified = Counter.builder("shareit.gateway.validator-cache.revalidations")
+                .description("Cached answers revalidated with the server, by whether they were still current")
+                .tag("result", "modified")
+                .register(meterRegistry);
+        this.fresh = Counter.builder("shareit.gateway.validator-cache.revalidations")
+                .description("Cached answers revalidated with the server, by whether they were still current")
+                .tag("result", "fresh")
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    public CachedResponse get(String uri, @Nullable Long userId) {
+        return cache == null ? null : cache.getIfPresent(key(uri, userId));
+    }
+
+    public boolean isFresh(CachedResponse cachedResponse) {
+        if (System.nanoTime() - cachedResponse.storedAt < freshNanos) {
+            fresh.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Turns the server's answer to a request sent with the tag of {@code cachedResponse} (if any) into the answer for
+     * the client, and keeps it for the next identical request if it has a tag.
+     */
+    public ResponseEntity<Object> revalidated(String uri, @Nullable Long userId,
+                                              @Nullable CachedResponse cachedResponse,
+                                              ResponseEntity<Object> response) {
+        if (cache == null) {
+            return response;
+        }
+        String key = key(uri, userId);
+        if (cachedResponse != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+            notModified.increment();
+            cache.put(key, new CachedResponse(cachedResponse.response, cachedResponse.weight));
+            return cachedResponse.response;
+        }
+        if (cachedResponse != null) {
+            modified.increment();
+        }
+        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+            Object body = response.getBody();
+            int bodyBytes = body instanceof byte[] ? ((byte[]) body).length : 0;
+            cache.put(key, new CachedResponse(response, ENTRY_OVERHEAD_BYTES + key.length() + bodyBytes));
+        } else {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+
+    private static String key(String uri, @Nullable Long userId) {
+        return userId == null ? uri : uri + "|" + userId;
+    }
+
+    public static class CachedResponse {
+        private final ResponseEntity<Object> response;
+        private final int weight;
+        private final long storedAt = System.nanoTime();
+
+        private CachedResponse(ResponseEntity<Object> response, int weight) {
+            this.response = response;
+            this.weight = weight;
+        }
+
+        public ResponseEntity<Object> getResponse() {
+            return response;
+        }
+
+        @Nullable
+        public String getETag() {
+            return response.getHeaders().getETag();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.dashboard;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class DashboardClient extends BaseClient {
+    private static final String API_PREFIX = "/dashboard";
+
+    public DashboardClient(ServerClientFactory serverClientFactory) {
+        super(serverClientFactory, API_PREFIX, false);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerDashboard(long userId, Integer size) {
+        if (size == null) {
+            return get("/owner", userId);
+        }
+        if (size < 0) {
+            throw new ValidationFailException("Parameter 'size' can't be negative!");
+        }
+        return get("/owner?size={size}", userId, Map.of("size", size));
+    }
+}
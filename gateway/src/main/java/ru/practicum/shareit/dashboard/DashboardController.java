@@ -0,0 +1,25 @@
+package ru.practicum.shareit.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class DashboardController {
+    private final DashboardClient dashboardClient;
+
+    @GetMapping("/owner")
+    public CompletableFuture<ResponseEntity<Object>> getOwnerDashboard(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                       @RequestParam(required = false) Integer size) {
+        log.info("Getting owner dashboard, userId={}, size={}", userId, size);
+        return dashboardClient.getOwnerDashboard(userId, size);
+    }
+}
@@ -1,47 +1,46 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientFactory serverClientFactory) {
+        super(serverClientFactory, API_PREFIX, true);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemByUser(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByIds(long userId, List<Long> itemIds) {
+        return get("?ids={ids}", userId, Map.of("ids", joinIds(itemIds)));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemByUser(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = new HashMap<>(Map.of("from", from));
         if (from < 0) {
             throw new ValidationFailException("Parameter 'from' can't be negative!");
@@ -57,7 +56,7 @@ public class ItemClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> searchItems(String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
         Map<String, Object> parameters = new HashMap<>(Map.of(
                 "text", text,
                 "from", from
@@ -75,7 +74,33 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, Long itemId, CommentCreateDto commentDto) {
+    public ResponseEntity<StreamingResponseBody> exportItems(long userId, ExportFormat format) {
+        return stream("/export?format={format}", userId, Map.of("format", format.name()), format.getMediaType());
+    }
+
+    public ResponseEntity<Object> importItems(long userId, ExportFormat format, InputStream inputStream) {
+        return upload("/import?format={format}", userId, Map.of("format", format.name()), format.getMediaType(),
+                inputStream);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getComments(long itemId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder path = new StringBuilder("/" + itemId + "/comments?");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path.append("cursor={cursor}&");
+        }
+        if (size != null) {
+            if (size <= 0) {
+                throw new ValidationFailException("Parameter 'size' must be positive!");
+            }
+            parameters.put("size", size);
+            path.append("size={size}");
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> addComment(long userId, Long itemId, CommentCreateDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
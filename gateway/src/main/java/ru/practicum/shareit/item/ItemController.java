@@ -6,11 +6,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/items")
@@ -21,49 +27,87 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @Valid @RequestBody ItemDto itemDto) {
         log.info("Creating item {} by user with id = {}.", itemDto, userId);
         return itemClient.create(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable(name = "itemId") long itemId,
-                                         @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @PathVariable(name = "itemId") long itemId,
+                                                            @RequestBody ItemDto itemDto) {
        log.info("Updating item with id = {} by user with id = {} to {}.", itemId, userId, itemDto);
        return itemClient.update(userId, itemId, itemDto);
     }
 
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<Object>> getByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                              @RequestParam List<Long> ids) {
+        log.info("Getting items with ids = {} by user with id = {}.", ids, userId);
+        return itemClient.getItemsByIds(userId, ids);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PathVariable long itemId) {
         log.info("Getting item with id = {} by user with id = {}.", itemId, userId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                   @RequestParam(required = false, defaultValue = "0") Integer from,
-                                   @RequestParam(required = false) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestParam(required = false, defaultValue = "0") Integer from,
+                                                      @RequestParam(required = false) Integer size) {
         log.info("Getting items by user with id = {}.", userId);
         return itemClient.getItemByUser(userId,from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
-                                     @RequestParam(required = false, defaultValue = "0") Integer from,
-                                     @RequestParam(required = false) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(
+            @RequestParam String text,
+            @RequestParam(required = false, defaultValue = "0") Integer from,
+            @RequestParam(required = false) Integer size) {
         log.info("Searching items by substring = '{}'.", text);
         if (text.isBlank()) {
-            return new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
         }
         return itemClient.searchItems(text, from, size);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                             @RequestParam(required = false,
+                                                                     defaultValue = "NDJSON") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format)
+                .orElseThrow(() -> new ValidationFailException("Unknown export format: " + format));
+        log.info("Exporting items of user with id = {} as {}.", userId, exportFormat);
+        return itemClient.exportItems(userId, exportFormat);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<Object> importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestParam(required = false, defaultValue = "NDJSON") String format,
+                                              InputStream inputStream) {
+        ExportFormat importFormat = ExportFormat.from(format)
+                .orElseThrow(() -> new ValidationFailException("Unknown import format: " + format));
+        log.info("Importing items of user with id = {} as {}.", userId, importFormat);
+        return itemClient.importItems(userId, importFormat, inputStream);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getComments(@PathVariable long itemId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        log.info("Getting comments of item with id = {}, cursor = {}, size = {}.", itemId, cursor, size);
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                 @PathVariable Long itemId,
-                                 @Validated @RequestBody CommentCreateDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @PathVariable Long itemId,
+                                                    @Validated @RequestBody CommentCreateDto commentDto) {
         log.info("Commenting item with id = {} by user with id = {}.", itemId, userId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
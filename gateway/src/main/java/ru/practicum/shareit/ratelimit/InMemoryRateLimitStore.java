@@ -0,0 +1,76 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets in a map, one atomic long per bucket. Instead of a token count and a refill time, a bucket keeps
+ * the moment at which it will be full again (the generic cell rate algorithm), so taking a token is a single
+ * compare-and-set without locks, and a bucket needs no refilling. A full bucket is no different from a missing one,
+ * so buckets that have been full since the last sweep are removed to keep memory bounded by the active clients.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore, DisposableBean {
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public InMemoryRateLimitStore(long idleEvictionIntervalMillis, MeterRegistry meterRegistry) {
+        Gauge.builder("shareit.gateway.rate-limit.buckets", buckets, Map::size)
+                .description("Token buckets of clients that used up part of a quota recently")
+                .register(meterRegistry);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictFullBuckets, idleEvictionIntervalMillis, idleEvictionIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long tryAcquire(String key, double permitsPerSecond, int burst) {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        long tolerance = interval * (Math.max(burst, 1) - 1);
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now < 0 ? now : fullAt;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /*
+    A token taken from a bucket between the check and its removal is lost, which lets that client through once more
+    than its quota allows. That is cheaper than synchronizing every request with the sweep.
+     */
+    private void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.forEach((key, bucket) -> {
+            if (bucket.get() - now <= 0) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+The in-memory store is only created if no other store is defined, so a shared store is plugged in by declaring it
+as a bean.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "shareit-gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+    @Bean
+    @ConditionalOnMissingBean
+    public RateLimitStore rateLimitStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new InMemoryRateLimitStore(properties.getIdleEvictionIntervalMillis(), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   RateLimitStore rateLimitStore,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, rateLimitStore, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
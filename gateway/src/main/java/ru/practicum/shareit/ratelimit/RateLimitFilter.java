@@ -0,0 +1,113 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests of a client that used up its quota for the route with 429 and the number of seconds after which
+ * a retry will succeed. Clients are told apart by {@code X-Sharer-User-Id}, or by address if the header is missing.
+ * The filter runs before the request reaches a controller, so rejected requests cost neither a thread of the
+ * client pool nor a connection to the server.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitStore rateLimitStore;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<LimitedRoute> routes = new ArrayList<>();
+    private final LimitedRoute defaultRoute;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore rateLimitStore, MeterRegistry meterRegistry) {
+        this.rateLimitStore = rateLimitStore;
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            String name = route.getMethod() == null ? route.getPath() : route.getMethod() + " " + route.getPath();
+            routes.add(new LimitedRoute(name, route.getMethod(), route.getPath(), route, meterRegistry));
+        }
+        this.defaultRoute = new LimitedRoute("default", null, null, properties.getDefaultQuota(), meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitedRoute route = match(request);
+        String client = request.getHeader(USER_HEADER);
+        String key = route.name + "|" + (client != null ? client : "address:" + request.getRemoteAddr());
+        long waitNanos = rateLimitStore.tryAcquire(key, route.quota.getPermitsPerSecond(), route.quota.getBurst());
+        if (waitNanos == 0) {
+            route.allowed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        route.rejected.increment();
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long retryAfterSeconds = Math.max(1, (waitNanos + second - 1) / second);
+        log.debug("Rejected request {} {} of client {}: quota of route '{}' used up.", request.getMethod(),
+                request.getRequestURI(), client, route.name);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(String.format("{\"error\":\"Too many requests, retry in %d s.\"}",
+                retryAfterSeconds));
+    }
+
+    private LimitedRoute match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (LimitedRoute route : routes) {
+            if ((route.method == null || route.method.equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.path, path)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private static class LimitedRoute {
+        private final String name;
+        private final String method;
+        private final String path;
+        private final RateLimitProperties.Quota quota;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private LimitedRoute(String name, String method, String path, RateLimitProperties.Quota quota,
+                             MeterRegistry meterRegistry) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.quota = quota;
+            this.allowed = Counter.builder("shareit.gateway.rate-limit.requests")
+                    .description("Requests let through or rejected by the rate limiter")
+                    .tag("route", name)
+                    .tag("result", "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("shareit.gateway.rate-limit.requests")
+                    .description("Requests let through or rejected by the rate limiter")
+                    .tag("route", name)
+                    .tag("result", "rejected")
+                    .register(meterRegistry);
+        }
+    }
+}
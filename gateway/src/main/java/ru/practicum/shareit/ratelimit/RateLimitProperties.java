@@ -0,0 +1,38 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quotas of the gateway per client. A request counts against the first route it matches, or against the default
+ * quota if it matches none; every client has a separate bucket per route.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private Quota defaultQuota = new Quota();
+    private List<Route> routes = new ArrayList<>();
+    private long idleEvictionIntervalMillis = 60000;
+
+    @Getter
+    @Setter
+    public static class Quota {
+        private double permitsPerSecond = 50;
+        private int burst = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Route extends Quota {
+        @Nullable
+        private String method;
+        private String path;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.ratelimit;
+
+/**
+ * Holds the token buckets of all clients. The in-memory store limits each gateway instance on its own; a store
+ * shared by all instances (for example, one atomic script per bucket in Redis) makes the limits cluster-wide without
+ * changes to the filter.
+ */
+public interface RateLimitStore {
+    /**
+     * Takes a token from the bucket under the key, creating a full bucket if there is none.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is added
+     */
+    long tryAcquire(String key, double permitsPerSecond, int burst);
+}
@@ -9,6 +9,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @RestController
 @RequestMapping("/requests")
@@ -19,29 +21,30 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> add(@RequestHeader("X-Sharer-User-Id") long userId,
-                              @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> add(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Creating request {}, userId={}", itemRequestDto, userId);
         return itemRequestClient.add(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnRequests(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Getting own requests, userId={}", userId);
         return itemRequestClient.getAllOwnRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                               @RequestParam(required = false, defaultValue = "0") Integer from,
-                                               @RequestParam(required = false) Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(required = false, defaultValue = "0") Integer from,
+            @RequestParam(required = false) Integer size) {
         log.info("Getting all requests, userId={}, from={},size={}", userId, from, size);
         return itemRequestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                 @PathVariable("requestId") long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                    @PathVariable("requestId") long requestId) {
         log.info("Getting request, requestId={}, userId={}", requestId, userId);
         return itemRequestClient.getById(userId, requestId);
     }
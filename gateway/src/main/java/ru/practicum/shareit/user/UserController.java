@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/users")
@@ -18,32 +20,40 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         log.info("Creating user {}.", userDto);
         return userClient.createUser(userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable(name = "id") long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(@PathVariable(name = "id") long userId) {
         log.info("Getting user with id = {}.", userId);
         return userClient.getUserById(userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable(name = "id") long userId, @RequestBody UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> update(
+            @PathVariable(name = "id") long userId,
+            @RequestBody UserDto userDto) {
         log.info("Updating user with id = {} to {}.", userId, userId);
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable(name = "id") long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(@PathVariable(name = "id") long userId) {
         log.info("Deleting user with id = {}.", userId);
         return userClient.delete(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public CompletableFuture<ResponseEntity<Object>> getAll() {
         log.info("Getting all users");
         return userClient.getAll();
     }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<Object>> getByIds(@RequestParam List<Long> ids) {
+        log.info("Getting users with ids = {}.", ids);
+        return userClient.getUsersByIds(ids);
+    }
 }
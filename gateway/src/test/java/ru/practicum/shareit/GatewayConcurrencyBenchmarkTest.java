@@ -0,0 +1,163 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How many requests the gateway keeps in flight to a slow server with a small Tomcat pool, in the blocking and the
+ * non-blocking mode. A stub server answers every request after a fixed delay and counts how many it holds at once;
+ * blocking, the gateway cannot hold more than it has Tomcat threads, non-blocking it holds every client request.
+ * Runs with {@code mvn -P benchmark test -pl gateway}; the results are printed.
+ */
+@Tag("benchmark")
+public class GatewayConcurrencyBenchmarkTest {
+    private static final int TOMCAT_THREADS = 10;
+    private static final int CONCURRENT_CLIENTS = 50;
+    private static final int REQUESTS_PER_CLIENT = 4;
+    private static final long SERVER_DELAY_MILLIS = 500;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+
+    private ExecutorService serverExecutor;
+    private ExecutorService clientExecutor;
+    private HttpServer server;
+
+    @BeforeEach
+    public void setServer() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        clientExecutor = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_CLIENTS * 2);
+        server.setExecutor(serverExecutor);
+        server.createContext("/actuator/health/readiness", exchange -> answer(exchange, "{\"status\":\"UP\"}"));
+        server.createContext("/users", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            answer(exchange, "{\"id\":1,\"name\":\"Пользователь\",\"email\":\"user@mail.ru\"}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    public void benchmarkBlocking() throws Exception {
+        int peak = run(false);
+
+        Assertions.assertTrue(peak <= TOMCAT_THREADS);
+    }
+
+    @Test
+    public void benchmarkNonBlocking() throws Exception {
+        int peak = run(true);
+
+        Assertions.assertTrue(peak > TOMCAT_THREADS);
+    }
+
+    /*
+    Coalescing, validator caching, route guards and rate limiting are switched off: they would answer or hold back
+    identical requests of one client, which is what this benchmark sends.
+     */
+    private int run(boolean nonBlocking) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                "--shareit-server.urls=http://localhost:" + server.getAddress().getPort(),
+                "--shareit-server.non-blocking=" + nonBlocking,
+                "--shareit-server.coalescing.enabled=false",
+                "--shareit-server.validator-cache.enabled=false",
+                "--shareit-server.route-guards.enabled=false",
+                "--shareit-gateway.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN")) {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1"))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            send(request, 1);
+            peakInFlight.set(0);
+            long start = System.nanoTime();
+            int succeeded = send(request, REQUESTS_PER_CLIENT);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%13s: %d of %d requests answered with 200 in %d ms, at most %d in flight to the "
+                            + "server (%d Tomcat threads, server answers after %d ms)%n",
+                    nonBlocking ? "non-blocking" : "blocking", succeeded, CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT,
+                    elapsedMillis, peakInFlight.get(), TOMCAT_THREADS, SERVER_DELAY_MILLIS);
+            Assertions.assertEquals(CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT, succeeded);
+            return peakInFlight.get();
+        }
+    }
+
+    private int send(HttpRequest request, int requestsPerClient) {
+        List<CompletableFuture<Integer>> clients = new ArrayList<>(CONCURRENT_CLIENTS);
+        for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+            clients.add(CompletableFuture.supplyAsync(() -> {
+                int succeeded = 0;
+                for (int j = 0; j < requestsPerClient; j++) {
+                    try {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            succeeded++;
+                        }
+                    } catch (IOException e) {
+                        return succeeded;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return succeeded;
+                    }
+                }
+                return succeeded;
+            }, clientExecutor));
+        }
+        return clients.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private static void answer(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
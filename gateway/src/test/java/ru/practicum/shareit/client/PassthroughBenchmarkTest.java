@@ -0,0 +1,152 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CPU the gateway spends per request on answers of the server of growing size: passing the body on as bytes, as
+ * {@link BaseClient} does, against parsing it into maps and lists and writing it out again for the client, as the
+ * gateway did before. Only the calling thread is measured; the stub server runs on its own threads. Runs with
+ * {@code mvn -P benchmark test -pl gateway}; the results are printed.
+ */
+@Tag("benchmark")
+public class PassthroughBenchmarkTest {
+    private static final int[] USER_COUNTS = {10, 100, 1000, 3000};
+    private static final int WARMUP_REQUESTS = 2000;
+    private static final int MEASURED_REQUESTS = 1000;
+
+    private final ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private RestTemplate rest;
+    private UsersClient client;
+
+    @BeforeEach
+    public void setServer() throws IOException {
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.INFO);
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            byte[] body = payloads.get(exchange.getRequestURI().getQuery());
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        httpClient = HttpClients.createDefault();
+        rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:" + server.getAddress().getPort()
+                        + "/users"))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+        client = new UsersClient(rest);
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void benchmarkUsers() throws IOException {
+        Assertions.assertTrue(threads.isCurrentThreadCpuTimeSupported());
+        System.out.printf("%8s %9s %16s %12s%n", "users", "bytes", "passthrough us", "parse us");
+        double passthrough = 0;
+        double parse = 0;
+        for (int count : USER_COUNTS) {
+            String query = "size=" + count;
+            byte[] body = json.writeValueAsBytes(users(count));
+            payloads.put(query, body);
+            Assertions.assertArrayEquals(body, (byte[]) client.getAll(query).getBody());
+            Assertions.assertEquals(json.readTree(body), json.readTree(parsed(query)));
+            passthrough = measure(() -> ((byte[]) client.getAll(query).getBody()).length);
+            parse = measure(() -> parsed(query).length);
+            System.out.printf("%8d %9d %16.1f %12.1f%n", count, body.length, passthrough, parse);
+        }
+        Assertions.assertTrue(passthrough < parse);
+    }
+
+    /*
+    What the clients did before: the answer parsed into an Object and written out by the JSON message converter.
+     */
+    private byte[] parsed(String query) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        ResponseEntity<Object> response = rest.exchange("?" + query, HttpMethod.GET, new HttpEntity<>(headers),
+                Object.class);
+        return json.writeValueAsBytes(response.getBody());
+    }
+
+    private static List<UserDto> users(int count) {
+        List<UserDto> users = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            users.add(new UserDto(i, "Пользователь " + i, "user" + i + "@mail.ru"));
+        }
+        return users;
+    }
+
+    private double measure(IoTask task) throws IOException {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            sink += task.run();
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            sink += task.run();
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - start;
+        Assertions.assertTrue(sink > 0);
+        return cpuNanos / 1e3 / MEASURED_REQUESTS;
+    }
+
+    private static class UsersClient extends BaseClient {
+        private UsersClient(RestTemplate rest) {
+            super(rest);
+        }
+
+        private ResponseEntity<Object> getAll(String query) {
+            return get("?" + query).join();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoTask {
+        int run() throws IOException;
+    }
+}
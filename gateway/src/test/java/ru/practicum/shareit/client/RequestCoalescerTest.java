@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestCoalescerTest {
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+    private AtomicInteger sent;
+    private CompletableFuture<ResponseEntity<Object>> serverResponse;
+
+    @BeforeEach
+    public void setRequestCoalescer() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(true, meterRegistry);
+        sent = new AtomicInteger();
+        serverResponse = new CompletableFuture<>();
+    }
+
+    @Test
+    public void testCoalesce_WhenSameRequestInFlight_ThenFollowerSharesAnswer() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> leader = coalesce("/items/1", 1L);
+        CompletableFuture<ResponseEntity<Object>> follower = coalesce("/items/1", 1L);
+
+        assertThat(sent.get(), is(1));
+        assertThat(follower.isDone(), is(false));
+
+        ResponseEntity<Object> answer = ResponseEntity.ok("item");
+        serverResponse.complete(answer);
+
+        assertThat(leader.get(), is(sameInstance(answer)));
+        assertThat(follower.get(), is(sameInstance(answer)));
+        assertThat(meterRegistry.get("shareit.gateway.coalescing.requests").tag("result", "coalesced")
+                .counter().count(), is(1.0));
+    }
+
+    @Test
+    public void testCoalesce_WhenAnswered_ThenNextRequestSent() {
+        coalesce("/items/1", 1L);
+        serverResponse.complete(ResponseEntity.ok("item"));
+
+        coalesce("/items/1", 1L);
+
+        assertThat(sent.get(), is(2));
+    }
+
+    @Test
+    public void testCoalesce_WhenOtherUser_ThenSentSeparately() {
+        coalesce("/items/1", 1L);
+        coalesce("/items/1", 2L);
+        coalesce("/items/2", 1L);
+
+        assertThat(sent.get(), is(3));
+    }
+
+    @Test
+    public void testCoalesce_WhenServerFails_ThenLeaderAndFollowersFail() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalesce("/items/1", 1L);
+        CompletableFuture<ResponseEntity<Object>> follower = coalesce("/items/1", 1L);
+
+        ResourceAccessException failure = new ResourceAccessException("Connection refused");
+        serverResponse.completeExceptionally(failure);
+
+        ExecutionException leaderFailure = Assertions.assertThrows(ExecutionException.class, leader::get);
+        ExecutionException followerFailure = Assertions.assertThrows(ExecutionException.class, follower::get);
+        assertThat(leaderFailure.getCause(), is(sameInstance(failure)));
+        assertThat(followerFailure.getCause(), is(sameInstance(failure)));
+
+        coalesce("/items/1", 1L);
+
+        assertThat(sent.get(), is(2));
+    }
+
+    @Test
+    public void testCoalesce_WhenSendingThrows_ThenFailedAndNotKept() {
+        IllegalStateException failure = new IllegalStateException("Route is open");
+
+        CompletableFuture<ResponseEntity<Object>> response = requestCoalescer.coalesce("/items/1", 1L, () -> {
+            throw failure;
+        });
+
+        ExecutionException thrown = Assertions.assertThrows(ExecutionException.class, response::get);
+        assertThat(thrown.getCause(), is(sameInstance(failure)));
+
+        coalesce("/items/1", 1L);
+
+        assertThat(sent.get(), is(1));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> coalesce(String uri, Long userId) {
+        return requestCoalescer.coalesce(uri, userId, () -> {
+            sent.incrementAndGet();
+            return serverResponse;
+        });
+    }
+}
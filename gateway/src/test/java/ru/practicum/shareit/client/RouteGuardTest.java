@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+
+public class RouteGuardTest {
+    private static final long OPEN_MILLIS = 50;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RouteGuard routeGuard;
+
+    @BeforeEach
+    public void setRouteGuard() {
+        meterRegistry = new SimpleMeterRegistry();
+        routeGuard = guard(2, 60_000);
+    }
+
+    @Test
+    public void testForRequest_ThenIdsShareRoute() {
+        RouteGuards routeGuards = new RouteGuards(true, 2, 4, 4, 50, 60_000, OPEN_MILLIS, 2, meterRegistry);
+
+        RouteGuard first = routeGuards.forRequest(HttpMethod.GET, URI.create("http://shareit-server/items/1?x=1"));
+        RouteGuard second = routeGuards.forRequest(HttpMethod.GET, URI.create("http://shareit-server/items/22"));
+
+        assertThat(first, is(sameInstance(second)));
+        assertThat(first.getRoute(), is("GET /items/{id}"));
+        assertThat(routeGuards.forRequest(HttpMethod.PATCH, URI.create("http://shareit-server/items/1")),
+                is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void testRelease_WhenFailureRateReached_ThenOpenAndReject() {
+        call(true);
+        call(true);
+        call(false);
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.CLOSED));
+
+        call(false);
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.OPEN));
+        assertThat(routeGuard.tryAcquire(), is(nullValue()));
+        assertThat(rejections("circuit-open"), is(1.0));
+    }
+
+    @Test
+    public void testRelease_WhenCallsSlow_ThenCountedAsFailures() {
+        routeGuard = guard(2, 0);
+
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.OPEN));
+    }
+
+    @Test
+    public void testTryAcquire_WhenOpenPeriodPassed_ThenHalfOpenProbesClose() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        RouteGuard.Permit firstProbe = routeGuard.tryAcquire();
+        RouteGuard.Permit secondProbe = routeGuard.tryAcquire();
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.HALF_OPEN));
+        assertThat(firstProbe, is(notNullValue()));
+        assertThat(secondProbe, is(notNullValue()));
+        assertThat(routeGuard.tryAcquire(), is(nullValue()));
+
+        routeGuard.release(firstProbe, true);
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.HALF_OPEN));
+
+        routeGuard.release(secondProbe, true);
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.CLOSED));
+        assertThat(routeGuard.tryAcquire(), is(notNullValue()));
+    }
+
+    @Test
+    public void testRelease_WhenProbeFails_ThenOpenAgain() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        routeGuard.release(routeGuard.tryAcquire(), false);
+
+        assertThat(routeGuard.getState(), is(RouteGuard.State.OPEN));
+        assertThat(routeGuard.tryAcquire(), is(nullValue()));
+        assertThat(meterRegistry.get("shareit.gateway.circuit-breaker.transitions").tag("to", "open")
+                .counter().count(), is(2.0));
+    }
+
+    @Test
+    public void testTryAcquire_WhenBulkheadFull_ThenRejectUntilReleased() {
+        RouteGuard.Permit first = routeGuard.tryAcquire();
+        RouteGuard.Permit second = routeGuard.tryAcquire();
+
+        assertThat(routeGuard.tryAcquire(), is(nullValue()));
+        assertThat(rejections("bulkhead-full"), is(1.0));
+
+        routeGuard.release(first, true);
+
+        assertThat(routeGuard.tryAcquire(), is(notNullValue()));
+        assertThat(second, is(notNullValue()));
+        assertThat(routeGuard.getState(), is(RouteGuard.State.CLOSED));
+    }
+
+    private RouteGuard guard(int maxConcurrentCalls, long slowCallMillis) {
+        return new RouteGuards(true, maxConcurrentCalls, 4, 4, 50, slowCallMillis, OPEN_MILLIS, 2, meterRegistry)
+                .forRequest(HttpMethod.GET, URI.create("http://shareit-server/items/1"));
+    }
+
+    private void call(boolean succeeded) {
+        routeGuard.release(routeGuard.tryAcquire(), succeeded);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertThat(routeGuard.getState(), is(RouteGuard.State.OPEN));
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("shareit.gateway.route.rejections").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ServerBalancerTest {
+    private static final String FIRST = "http://server-1:9090";
+    private static final String SECOND = "http://server-2:9090";
+    private static final long BASE_EJECTION_MILLIS = 1000;
+
+    private ServerBalancer serverBalancer;
+    private ServerBackend first;
+    private ServerBackend second;
+
+    @BeforeEach
+    public void setServerBalancer() {
+        serverBalancer = new ServerBalancer(List.of(FIRST, SECOND + "/"), 2, BASE_EJECTION_MILLIS, "/health",
+                3_600_000L, 100, new SimpleMeterRegistry());
+        Map<String, ServerBackend> backends = new HashMap<>();
+        for (int i = 0; i < 1000 && backends.size() < 2; i++) {
+            ServerBackend backend = serverBalancer.choose();
+            backends.put(backend.getUri().toString(), backend);
+        }
+        first = backends.get(FIRST);
+        second = backends.get(SECOND);
+    }
+
+    @AfterEach
+    public void destroyServerBalancer() {
+        serverBalancer.destroy();
+    }
+
+    @Test
+    public void testChoose_ThenBusierInstanceAvoided() {
+        first.requestStarted();
+        first.requestStarted();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(serverBalancer.choose(), is(sameInstance(second)));
+        }
+
+        second.requestStarted();
+        second.requestStarted();
+        second.requestStarted();
+
+        assertThat(serverBalancer.choose(), is(sameInstance(first)));
+    }
+
+    @Test
+    public void testChoose_WhenConsecutiveFailures_ThenEjected() {
+        serverBalancer.recordFailure(first, 1_000_000L);
+
+        assertThat(first.isAvailable(System.currentTimeMillis()), is(true));
+
+        serverBalancer.recordFailure(first, 1_000_000L);
+
+        assertThat(first.isAvailable(System.currentTimeMillis()), is(false));
+        for (int i = 0; i < 20; i++) {
+            assertThat(serverBalancer.choose(), is(sameInstance(second)));
+        }
+    }
+
+    @Test
+    public void testChoose_WhenNoInstanceAvailable_ThenAllTried() {
+        first.setHealthy(false);
+        second.setHealthy(false);
+
+        ServerBackend chosen = serverBalancer.choose();
+
+        assertThat(chosen == first || chosen == second, is(true));
+    }
+
+    @Test
+    public void testRecordFailure_WhenEjectedAgain_ThenLongerEjection() {
+        eject(first);
+        long now = System.currentTimeMillis();
+
+        assertThat(first.isAvailable(now + BASE_EJECTION_MILLIS + 100), is(true));
+
+        eject(first);
+        now = System.currentTimeMillis();
+
+        assertThat(first.isAvailable(now + BASE_EJECTION_MILLIS + 100), is(false));
+        assertThat(first.isAvailable(now + 2 * BASE_EJECTION_MILLIS + 100), is(true));
+    }
+
+    @Test
+    public void testRecordSuccess_ThenEjectionBackoffReset() {
+        eject(first);
+        eject(first);
+        serverBalancer.recordSuccess(first, 1_000_000L);
+
+        eject(first);
+        long now = System.currentTimeMillis();
+
+        assertThat(first.isAvailable(now + BASE_EJECTION_MILLIS + 100), is(true));
+    }
+
+    @Test
+    public void testResolve_ThenServerUrlReplaced() {
+        assertThat(second.resolve(URI.create(ServerBalancer.SERVER_URL + "/items/1?from=0")).toString(),
+                is(SECOND + "/items/1?from=0"));
+    }
+
+    private void eject(ServerBackend backend) {
+        serverBalancer.recordFailure(backend, 1_000_000L);
+        serverBalancer.recordFailure(backend, 1_000_000L);
+    }
+}
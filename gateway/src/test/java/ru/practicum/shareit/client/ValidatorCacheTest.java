@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class ValidatorCacheTest {
+    private SimpleMeterRegistry meterRegistry;
+    private ValidatorCache validatorCache;
+
+    @BeforeEach
+    public void setValidatorCache() {
+        meterRegistry = new SimpleMeterRegistry();
+        validatorCache = new ValidatorCache(true, 1_000_000L, 600_000L, 0L, meterRegistry);
+    }
+
+    @Test
+    public void testRevalidated_WhenNotModified_ThenCachedAnswerReturned() {
+        ResponseEntity<Object> answer = ResponseEntity.ok().eTag("\"item-1-0\"").body(new byte[]{1, 2, 3});
+        validatorCache.revalidated("/items/1", 1L, null, answer);
+
+        ValidatorCache.CachedResponse cachedResponse = validatorCache.get("/items/1", 1L);
+
+        assertThat(cachedResponse.getETag(), is("\"item-1-0\""));
+        assertThat(validatorCache.isFresh(cachedResponse), is(false));
+
+        ResponseEntity<Object> revalidated = validatorCache.revalidated("/items/1", 1L, cachedResponse,
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"item-1-0\"").build());
+
+        assertThat(revalidated, is(sameInstance(answer)));
+        assertThat(validatorCache.get("/items/1", 1L).getResponse(), is(sameInstance(answer)));
+        assertThat(revalidations("not-modified"), is(1.0));
+    }
+
+    @Test
+    public void testRevalidated_WhenModified_ThenNewAnswerCached() {
+        validatorCache.revalidated("/items/1", 1L, null, ResponseEntity.ok().eTag("\"item-1-0\"").body("old"));
+        ResponseEntity<Object> changed = ResponseEntity.ok().eTag("\"item-1-1\"").body("new");
+
+        ResponseEntity<Object> revalidated = validatorCache.revalidated("/items/1", 1L,
+                validatorCache.get("/items/1", 1L), changed);
+
+        assertThat(revalidated, is(sameInstance(changed)));
+        assertThat(validatorCache.get("/items/1", 1L).getETag(), is("\"item-1-1\""));
+        assertThat(revalidations("modified"), is(1.0));
+    }
+
+    @Test
+    public void testRevalidated_WhenNoEntityTag_ThenNotCached() {
+        validatorCache.revalidated("/items/1", 1L, null, ResponseEntity.ok().eTag("\"item-1-0\"").body("old"));
+
+        validatorCache.revalidated("/items/1", 1L, validatorCache.get("/items/1", 1L), ResponseEntity.ok("new"));
+
+        assertThat(validatorCache.get("/items/1", 1L), is(nullValue()));
+    }
+
+    @Test
+    public void testGet_WhenOtherUser_ThenNotShared() {
+        validatorCache.revalidated("/items/1", 1L, null, ResponseEntity.ok().eTag("\"item-1-0\"").body("item"));
+
+        assertThat(validatorCache.get("/items/1", 2L), is(nullValue()));
+    }
+
+    @Test
+    public void testIsFresh_WhenYoungerThanFreshPeriod_ThenTrue() {
+        validatorCache = new ValidatorCache(true, 1_000_000L, 600_000L, 60_000L, meterRegistry);
+        validatorCache.revalidated("/items/1", 1L, null, ResponseEntity.ok().eTag("\"item-1-0\"").body("item"));
+
+        assertThat(validatorCache.isFresh(validatorCache.get("/items/1", 1L)), is(true));
+    }
+
+    private double revalidations(String result) {
+        return meterRegistry.get("shareit.gateway.validator-cache.revalidations").tag("result", result)
+                .counter().count();
+    }
+}
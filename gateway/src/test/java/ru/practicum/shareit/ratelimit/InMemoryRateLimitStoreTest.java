@@ -0,0 +1,83 @@
+package ru.practicum.shareit.ratelimit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class InMemoryRateLimitStoreTest {
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryRateLimitStore rateLimitStore;
+
+    @BeforeEach
+    public void setRateLimitStore() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitStore = new InMemoryRateLimitStore(20, meterRegistry);
+    }
+
+    @AfterEach
+    public void destroyRateLimitStore() {
+        rateLimitStore.destroy();
+    }
+
+    @Test
+    public void testTryAcquire_WhenBurstUsedUp_ThenWaitForNextToken() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimitStore.tryAcquire("client", 1, 3), is(0L));
+        }
+
+        long waitNanos = rateLimitStore.tryAcquire("client", 1, 3);
+
+        assertThat(waitNanos, is(greaterThan(TimeUnit.MILLISECONDS.toNanos(900))));
+        assertThat(waitNanos, is(lessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    @Test
+    public void testTryAcquire_WhenRejected_ThenNoTokenTaken() {
+        rateLimitStore.tryAcquire("client", 1, 1);
+
+        long firstWait = rateLimitStore.tryAcquire("client", 1, 1);
+        long secondWait = rateLimitStore.tryAcquire("client", 1, 1);
+
+        assertThat(secondWait, is(lessThanOrEqualTo(firstWait)));
+    }
+
+    @Test
+    public void testTryAcquire_WhenIntervalPassed_ThenTokenAdded() throws InterruptedException {
+        assertThat(rateLimitStore.tryAcquire("client", 100, 1), is(0L));
+        assertThat(rateLimitStore.tryAcquire("client", 100, 1), is(greaterThan(0L)));
+
+        Thread.sleep(15);
+
+        assertThat(rateLimitStore.tryAcquire("client", 100, 1), is(0L));
+    }
+
+    @Test
+    public void testTryAcquire_WhenOtherKey_ThenSeparateBucket() {
+        rateLimitStore.tryAcquire("first", 1, 1);
+
+        assertThat(rateLimitStore.tryAcquire("second", 1, 1), is(0L));
+    }
+
+    @Test
+    public void testSweep_WhenBucketFullAgain_ThenRemoved() throws InterruptedException {
+        rateLimitStore.tryAcquire("fast", 1000, 1);
+        rateLimitStore.tryAcquire("slow", 0.1, 1);
+
+        assertThat(buckets(), is(2.0));
+
+        Thread.sleep(100);
+
+        assertThat(buckets(), is(1.0));
+        assertThat(rateLimitStore.tryAcquire("slow", 0.1, 1), is(greaterThan(0L)));
+    }
+
+    private double buckets() {
+        return meterRegistry.get("shareit.gateway.rate-limit.buckets").gauge().value();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.ratelimit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.List;
+
+public class RateLimitFilterTest {
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryRateLimitStore rateLimitStore;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setRateLimitFilter() {
+        RateLimitProperties.Route bookings = new RateLimitProperties.Route();
+        bookings.setMethod("POST");
+        bookings.setPath("/bookings/**");
+        bookings.setPermitsPerSecond(0.5);
+        bookings.setBurst(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(bookings));
+        properties.getDefaultQuota().setBurst(2);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitStore = new InMemoryRateLimitStore(60_000, meterRegistry);
+        rateLimitFilter = new RateLimitFilter(properties, rateLimitStore, meterRegistry);
+    }
+
+    @AfterEach
+    public void destroyRateLimitStore() {
+        rateLimitStore.destroy();
+    }
+
+    @Test
+    public void testDoFilter_WhenQuotaUsedUp_ThenTooManyRequestsWithRetryAfter() throws Exception {
+        assertThat(filter("POST", "/bookings", "1").getStatus(), is(200));
+
+        MockHttpServletResponse rejected = filter("POST", "/bookings", "1");
+
+        assertThat(rejected.getStatus(), is(429));
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER), is("2"));
+        assertThat(meterRegistry.get("shareit.gateway.rate-limit.requests").tag("route", "POST /bookings/**")
+                .tag("result", "rejected").counter().count(), is(1.0));
+    }
+
+    @Test
+    public void testDoFilter_WhenOtherClientOrRoute_ThenSeparateQuota() throws Exception {
+        filter("POST", "/bookings", "1");
+
+        assertThat(filter("POST", "/bookings", "2").getStatus(), is(200));
+        assertThat(filter("GET", "/bookings", "1").getStatus(), is(200));
+        assertThat(filter("POST", "/bookings", null).getStatus(), is(200));
+    }
+
+    @Test
+    public void testDoFilter_WhenActuator_ThenNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter("GET", "/actuator/health", null).getStatus(), is(200));
+        }
+    }
+
+    private MockHttpServletResponse filter(String method, String path, String userId)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
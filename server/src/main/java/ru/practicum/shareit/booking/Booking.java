@@ -13,7 +13,6 @@ import java.util.Objects;
 @Getter
 @ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +29,19 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public Booking(Long id, LocalDateTime startDate, LocalDateTime endDate, Long itemId, Long bookerId,
+                   BookingStatus status) {
+        this.id = id;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.itemId = itemId;
+        this.bookerId = bookerId;
+        this.status = status;
+    }
 
     @Override
     public boolean equals(Object o) {
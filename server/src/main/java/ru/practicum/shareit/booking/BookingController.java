@@ -1,10 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,10 +34,22 @@ public class BookingController {
         return bookingService.consider(ownerId, bookingId, approved);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable("bookingId") Long bookingId) {
-        return bookingService.getById(userId, bookingId);
+    public ResponseEntity<BookingDto> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable("bookingId") Long bookingId) {
+        Tagged<BookingDto> booking = bookingService.getTaggedById(userId, bookingId);
+        return ResponseEntity.ok().eTag(booking.getETag()).body(booking.getBody());
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetDto<BookingDto> getByIds(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestParam List<Long> ids) {
+        return bookingService.getByIds(userId, ids);
     }
 
     @GetMapping
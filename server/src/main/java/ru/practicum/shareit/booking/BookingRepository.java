@@ -2,9 +2,15 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findAllByBookerIdOrderByStartDateDesc(Long bookerId, Pageable pageable);
@@ -48,4 +54,9 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByItemIdAndBookerIdAndStatusAndStartDateBefore(Long itemId, Long bookerId,
                                                                         BookingStatus status, LocalDateTime date);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from Booking b where b.itemId in (select i.id from Item i where i.ownerId = ?1) " +
+            "order by b.startDate desc")
+    Stream<Booking> streamAllByItemOwnerId(Long ownerId);
 }
\ No newline at end of file
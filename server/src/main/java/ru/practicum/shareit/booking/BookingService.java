@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +17,12 @@ public interface BookingService {
 
     BookingDto getById(Long userId, Long bookingId);
 
+    Tagged<BookingDto> getTaggedById(Long userId, Long bookingId);
+
+    MultiGetDto<BookingDto> getByIds(Long userId, List<Long> bookingIds);
+
+    SseEmitter subscribe(Long userId);
+
     List<BookingDto> getAllBookerBookings(Long bookerId, String state, Integer from, Optional<Integer> size);
 
     List<BookingDto> getAllOwnerBookings(Long ownerId, String state, Integer from, Optional<Integer> size);
@@ -5,19 +5,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.BookingFailException;
 import ru.practicum.shareit.exceptions.ForbiddenAccessException;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 import ru.practicum.shareit.utils.Utils;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,6 +41,11 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingStreamRegistry bookingStreamRegistry;
+    private final ChangeLog changeLog;
+    private final ItemViewCache itemViewCache;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Override
     @Transactional
@@ -56,8 +70,13 @@ public class BookingServiceImpl implements BookingService {
         }
         Booking booking = BookingMapper.toBooking(bookingDto, booker);
         Booking createdBooking = bookingRepository.save(booking);
+        changeLog.record(ChangeType.BOOKING, createdBooking.getId());
+        itemViewCache.invalidateOwnerView(bookingItem.getId());
+        readYourWritesTracker.recordWrite(userId, bookingItem.getOwnerId());
         log.info("Created new Booking: {}.", createdBooking);
-        return BookingMapper.toBookingDto(createdBooking, booker, bookingItem);
+        BookingDto createdBookingDto = BookingMapper.toBookingDto(createdBooking, booker, bookingItem);
+        bookingStreamRegistry.publish(createdBookingDto, bookingItem.getOwnerId());
+        return createdBookingDto;
     }
 
     @Override
@@ -77,12 +96,22 @@ public class BookingServiceImpl implements BookingService {
         }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        changeLog.record(ChangeType.BOOKING, updatedBooking.getId());
+        itemViewCache.invalidateOwnerView(item.getId());
+        readYourWritesTracker.recordWrite(ownerId, booking.getBookerId());
         log.info("Updated Booking: {}.", updatedBooking);
-        return BookingMapper.toBookingDto(updatedBooking, booker, item);
+        BookingDto updatedBookingDto = BookingMapper.toBookingDto(updatedBooking, booker, item);
+        bookingStreamRegistry.publish(updatedBookingDto, item.getOwnerId());
+        return updatedBookingDto;
     }
 
     @Override
     public BookingDto getById(Long userId, Long bookingId) {
+        return getTaggedById(userId, bookingId).getBody();
+    }
+
+    @Override
+    public Tagged<BookingDto> getTaggedById(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
         Item item = itemRepository.findById(booking.getItemId()).orElseThrow();
         if (!Objects.equals(userId, booking.getBookerId()) && !Objects.equals(userId, item.getOwnerId())) {
@@ -90,7 +119,41 @@ public class BookingServiceImpl implements BookingService {
         }
         User booker = userRepository.findById(booking.getBookerId()).orElseThrow();
         log.info("Read Booking: {}.", booking);
-        return BookingMapper.toBookingDto(booking, booker, item);
+        return Tagged.of(BookingMapper.toBookingDto(booking, booker, item), Utils.eTag("booking", booking.getId(),
+                booking.getVersion(), item.getVersion(), booker.getVersion()));
+    }
+
+    @Override
+    public MultiGetDto<BookingDto> getByIds(Long userId, List<Long> bookingIds) {
+        List<Long> distinctIds = Utils.getDistinctIds(bookingIds);
+        List<Booking> bookings = bookingRepository.findAllById(distinctIds);
+        Map<Long, Item> items = itemRepository.findAllById(bookings.stream()
+                        .map(Booking::getItemId)
+                        .distinct()
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Item::getId, i -> i));
+        List<Booking> visibleBookings = bookings.stream()
+                .filter(booking -> Objects.equals(userId, booking.getBookerId())
+                        || Objects.equals(userId, items.get(booking.getItemId()).getOwnerId()))
+                .collect(Collectors.toList());
+        Map<Long, User> bookers = userRepository.findAllById(visibleBookings.stream()
+                        .map(Booking::getBookerId)
+                        .distinct()
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
+        Map<Long, BookingDto> bookingDtos = new HashMap<>();
+        for (Booking booking : visibleBookings) {
+            bookingDtos.put(booking.getId(), BookingMapper.toBookingDto(booking, bookers.get(booking.getBookerId()),
+                    items.get(booking.getItemId())));
+        }
+        log.info("Read {} of {} requested Bookings.", bookingDtos.size(), distinctIds.size());
+        return MultiGetDto.of(distinctIds, bookingDtos);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        userExistenceChecker.requireExists(userId);
+        return bookingStreamRegistry.subscribe(userId);
     }
 
     @Override
@@ -138,7 +201,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> getAllOwnerBookings(Long ownerId, String state, Integer from, Optional<Integer> size) {
         PageRequest pageRequest = Utils.getPageRequest(from, size);
-        userRepository.findById(ownerId).orElseThrow();
+        userExistenceChecker.requireExists(ownerId);
         List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId);
         if (items.isEmpty()) {
             throw new ValidationFailException("No items found for this owner!");
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of booking status changes to SSE subscribers, keyed by user id.
+ * Every subscription has a bounded queue: a client that can't keep up is disconnected
+ * instead of slowing down the request that changed the booking.
+ */
+@Slf4j
+@Component
+public class BookingStreamRegistry {
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService dispatcher;
+    private final long timeoutMillis;
+    private final int maxConnectionsPerUser;
+    private final int queueCapacity;
+    private final long heartbeatSeconds;
+    private final Counter publishedEvents;
+    private final Counter droppedSubscriptions;
+
+    public BookingStreamRegistry(MeterRegistry meterRegistry,
+                                 @Value("${shareit.bookings.stream.timeout-millis:1800000}") long timeoutMillis,
+                                 @Value("${shareit.bookings.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                 @Value("${shareit.bookings.stream.queue-capacity:32}") int queueCapacity,
+                                 @Value("${shareit.bookings.stream.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.queueCapacity = queueCapacity;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.dispatcher = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "booking-stream-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        meterRegistry.gauge("shareit.bookings.stream.connections", connections);
+        this.publishedEvents = meterRegistry.counter("shareit.bookings.stream.events");
+        this.droppedSubscriptions = meterRegistry.counter("shareit.bookings.stream.dropped");
+    }
+
+    /*
+    The limit is checked and the subscription added under the lock of the user's map entry, so concurrent requests of
+    one user can't both pass the check. A rejected client is told to retry after a heartbeat: streams whose client has
+    gone away are found and closed by the next one.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<Subscription> newUserSubscriptions = userSubscriptions != null ? userSubscriptions
+                    : ConcurrentHashMap.newKeySet();
+            if (newUserSubscriptions.size() >= maxConnectionsPerUser) {
+                throw new TooManyRequestsException(String.format(
+                        "User with id = %s has too many open booking streams!", userId), heartbeatSeconds);
+            }
+            newUserSubscriptions.add(subscription);
+            return newUserSubscriptions;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        try {
+            // Commits the response headers right away: the gateway waits for them before it answers its client.
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            remove(subscription);
+            emitter.completeWithError(e);
+        }
+        log.info("Opened booking stream for User with id = {}.", userId);
+        return emitter;
+    }
+
+    public void publish(BookingDto booking, Long ownerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(booking, ownerId);
+                }
+            });
+        } else {
+            dispatch(booking, ownerId);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(s -> s.emitter.complete()));
+    }
+
+    private void dispatch(BookingDto booking, Long ownerId) {
+        publishedEvents.increment();
+        offer(booking.getBooker().getId(), booking);
+        if (!ownerId.equals(booking.getBooker().getId())) {
+            offer(ownerId, booking);
+        }
+    }
+
+    private void offer(Long userId, BookingDto booking) {
+        for (Subscription subscription : subscriptions.getOrDefault(userId, Set.of())) {
+            if (subscription.queue.size() >= queueCapacity) {
+                log.warn("Booking stream of User with id = {} is too slow, closing it.", userId);
+                droppedSubscriptions.increment();
+                remove(subscription);
+                subscription.emitter.complete();
+                continue;
+            }
+            subscription.queue.add(SseEmitter.event()
+                    .id(String.valueOf(booking.getId()))
+                    .name("booking")
+                    .data(booking));
+            if (subscription.draining.compareAndSet(false, true)) {
+                dispatcher.execute(() -> drain(subscription));
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = subscription.queue.poll()) != null) {
+            try {
+                subscription.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                remove(subscription);
+                subscription.emitter.completeWithError(e);
+                return;
+            }
+        }
+        subscription.draining.set(false);
+        if (!subscription.queue.isEmpty() && subscription.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> {
+            try {
+                subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                remove(subscription);
+            }
+        }));
+    }
+
+    private void remove(Subscription subscription) {
+        Set<Subscription> userSubscriptions = subscriptions.get(subscription.userId);
+        if (userSubscriptions != null && userSubscriptions.remove(subscription)) {
+            connections.decrementAndGet();
+            subscriptions.computeIfPresent(subscription.userId, (id, s) -> s.isEmpty() ? null : s);
+            log.info("Closed booking stream for User with id = {}.", subscription.userId);
+        }
+    }
+
+    private static class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.change;
+
+import lombok.*;
+import org.hibernate.Hibernate;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Entity
+@Table(name = "CHANGES")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Change {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private ChangeType entityType;
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    @Column(name = "changed", nullable = false)
+    private LocalDateTime changed = LocalDateTime.now();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Change change = (Change) o;
+        return Objects.equals(seq, change.seq) && entityType == change.entityType && Objects.equals(entityId, change.entityId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seq, entityType, entityId);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.change;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping(path = "/changes")
+@RequiredArgsConstructor
+public class ChangeController {
+    private final ChangeService changeService;
+
+    @GetMapping
+    public ChangeFeedDto getChanges(@RequestHeader("X-Sharer-User-Id") long userId,
+                                    @RequestParam(required = false, defaultValue = "0") Long since,
+                                    @RequestParam(required = false) Optional<Integer> size) {
+        return changeService.getChanges(userId, since, size);
+    }
+}
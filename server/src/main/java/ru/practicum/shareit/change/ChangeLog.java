@@ -0,0 +1,76 @@
+package ru.practicum.shareit.change;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records the changes of a transaction right before it commits, after locking the single row of CHANGE_LOCK. The lock
+ * is held until the commit, so sequence numbers are handed out in commit order: when a client has read a change, every
+ * change with a lower seq is already visible, and nothing can appear behind its cursor later. Only the last moment of
+ * each writing transaction is serialized, not the transaction itself.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeLog {
+    private static final String LOCK_CHANGES = "SELECT id FROM change_lock WHERE id = 1 FOR UPDATE";
+    private static final String INSERT_CHANGE = "INSERT INTO changes (entity_type, entity_id, changed) "
+            + "VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeType entityType, Long entityId) {
+        pendingChanges().add(entityType, entityId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(ChangeType entityType, Collection<Long> entityIds) {
+        PendingChanges pendingChanges = pendingChanges();
+        entityIds.forEach(entityId -> pendingChanges.add(entityType, entityId));
+    }
+
+    /*
+    Looked up among the synchronizations rather than bound as a resource: those of an outer transaction are suspended
+    while an inner one runs, so each transaction records its own changes.
+     */
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges) {
+                return (PendingChanges) synchronization;
+            }
+        }
+        PendingChanges pendingChanges = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        return pendingChanges;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<Object[]> changes = new ArrayList<>();
+
+        private void add(ChangeType entityType, Long entityId) {
+            changes.add(new Object[]{entityType.name(), entityId, null});
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.queryForObject(LOCK_CHANGES, Integer.class);
+            Timestamp changed = Timestamp.valueOf(LocalDateTime.now());
+            changes.forEach(change -> change[2] = changed);
+            jdbcTemplate.batchUpdate(INSERT_CHANGE, changes);
+            log.debug("Recorded {} Changes.", changes.size());
+        }
+    }
+}
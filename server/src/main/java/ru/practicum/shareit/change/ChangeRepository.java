@@ -0,0 +1,10 @@
+package ru.practicum.shareit.change;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ChangeRepository extends JpaRepository<Change, Long> {
+    List<Change> findAllBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+}
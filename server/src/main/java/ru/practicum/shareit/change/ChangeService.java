@@ -0,0 +1,9 @@
+package ru.practicum.shareit.change;
+
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+
+import java.util.Optional;
+
+public interface ChangeService {
+    ChangeFeedDto getChanges(Long userId, Long since, Optional<Integer> size);
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.change;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.change.dto.ChangeDto;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.change.dto.ChangedCommentDto;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.Utils;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class ChangeServiceImpl implements ChangeService {
+    private final ChangeRepository changeRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserExistenceChecker userExistenceChecker;
+
+    @Override
+    public ChangeFeedDto getChanges(Long userId, Long since, Optional<Integer> size) {
+        if (since < 0) {
+            throw new ValidationFailException("Parameter 'since' must be positive!");
+        }
+        userExistenceChecker.requireExists(userId);
+        List<Change> changes = changeRepository.findAllBySeqGreaterThanOrderBySeqAsc(since,
+                Utils.getPageRequest(0, size));
+        if (changes.isEmpty()) {
+            return new ChangeFeedDto(Collections.emptyList(), since);
+        }
+        Long cursor = changes.get(changes.size() - 1).getSeq();
+        Map<String, Change> latestChanges = new HashMap<>();
+        for (Change change : changes) {
+            latestChanges.put(change.getEntityType() + ":" + change.getEntityId(), change);
+        }
+        Map<ChangeType, List<Long>> changedIds = latestChanges.values().stream()
+                .collect(Collectors.groupingBy(Change::getEntityType,
+                        Collectors.mapping(Change::getEntityId, Collectors.toList())));
+        Map<ChangeType, Map<Long, Object>> payloads = new EnumMap<>(ChangeType.class);
+        payloads.put(ChangeType.ITEM, itemRepository.findAllById(ids(changedIds, ChangeType.ITEM)).stream()
+                .collect(Collectors.toMap(Item::getId, ItemMapper::toItemShortDto)));
+        payloads.put(ChangeType.COMMENT, commentRepository.findAllById(ids(changedIds, ChangeType.COMMENT)).stream()
+                .collect(Collectors.toMap(Comment::getId, comment -> new ChangedCommentDto(comment.getId(),
+                        comment.getItemId(), comment.getText(), comment.getAuthorName(), comment.getCreated()))));
+        payloads.put(ChangeType.REQUEST, getItemRequests(ids(changedIds, ChangeType.REQUEST)));
+        payloads.put(ChangeType.BOOKING, getVisibleBookings(userId, ids(changedIds, ChangeType.BOOKING)));
+        List<ChangeDto> changeDtos = latestChanges.values().stream()
+                .sorted(Comparator.comparing(Change::getSeq))
+                .filter(change -> payloads.get(change.getEntityType()).containsKey(change.getEntityId()))
+                .map(change -> new ChangeDto(change.getSeq(), change.getEntityType(), change.getEntityId(),
+                        payloads.get(change.getEntityType()).get(change.getEntityId())))
+                .collect(Collectors.toList());
+        log.info("Found {} Changes after seq = {} for User with id = {}.", changeDtos.size(), since, userId);
+        return new ChangeFeedDto(changeDtos, cursor);
+    }
+
+    private Map<Long, Object> getVisibleBookings(Long userId, List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+        Map<Long, Item> items = itemRepository.findAllById(bookings.stream()
+                        .map(Booking::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> visibleBookings = bookings.stream()
+                .filter(booking -> Objects.equals(booking.getBookerId(), userId)
+                        || Objects.equals(items.get(booking.getItemId()).getOwnerId(), userId))
+                .collect(Collectors.toList());
+        Map<Long, User> bookers = userRepository.findAllById(visibleBookings.stream()
+                        .map(Booking::getBookerId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return visibleBookings.stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> BookingMapper.toBookingDto(booking,
+                        bookers.get(booking.getBookerId()), items.get(booking.getItemId()))));
+    }
+
+    private Map<Long, Object> getItemRequests(List<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllById(requestIds);
+        List<ItemShortDto> itemDtos = itemRepository.findAllByRequestIdIn(itemRequests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .map(ItemMapper::toItemShortDto)
+                .collect(Collectors.toList());
+        return ItemRequestMapper.toItemRequestDtos(itemRequests, itemDtos).stream()
+                .collect(Collectors.toMap(ItemRequestDto::getId, Function.identity()));
+    }
+
+    private static List<Long> ids(Map<ChangeType, List<Long>> changedIds, ChangeType type) {
+        return changedIds.getOrDefault(type, Collections.emptyList());
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.change;
+
+public enum ChangeType {
+    ITEM,
+    BOOKING,
+    COMMENT,
+    REQUEST
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.change.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.change.ChangeType;
+
+@Getter
+@AllArgsConstructor
+public class ChangeDto {
+    private final Long seq;
+    private final ChangeType type;
+    private final Long id;
+    private final Object data;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.change.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ChangeFeedDto {
+    private final List<ChangeDto> changes;
+    private final Long cursor;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.change.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ChangedCommentDto {
+    private final Long id;
+    private final Long itemId;
+    private final String text;
+    private final String authorName;
+    private final LocalDateTime created;
+}
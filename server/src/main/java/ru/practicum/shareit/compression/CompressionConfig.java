@@ -0,0 +1,23 @@
+package ru.practicum.shareit.compression;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+Responses are compressed by Tomcat (server.compression.*); requests are decompressed here, before anything reads
+their bodies.
+ */
+@Configuration
+public class CompressionConfig {
+    @Bean
+    public FilterRegistrationBean<RequestDecompressionFilter> requestDecompressionFilter(
+            @Value("${shareit.compression.max-request-bytes:16777216}") long maxRequestBytes) {
+        FilterRegistrationBean<RequestDecompressionFilter> registration = new FilterRegistrationBean<>(
+                new RequestDecompressionFilter(maxRequestBytes));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 120);
+        return registration;
+    }
+}
@@ -0,0 +1,219 @@
+package ru.practicum.shareit.compression;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.MalformedRequestBodyException;
+import ru.practicum.shareit.exceptions.RequestBodyTooLargeException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Decompresses request bodies sent with {@code Content-Encoding: gzip}, so that controllers read them as if they had
+ * been sent as is. Other encodings are rejected with 415. A body that is not valid gzip fails to be read with
+ * {@link MalformedRequestBodyException} (400), one that decompresses to more than
+ * {@code shareit.compression.max-request-bytes} with {@link RequestBodyTooLargeException} (413).
+ */
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+    private static final String GZIP = "gzip";
+    private static final String IDENTITY = "identity";
+
+    private final long maxRequestBytes;
+
+    public RequestDecompressionFilter(long maxRequestBytes) {
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding == null || contentEncoding.isBlank() || contentEncoding.trim().equalsIgnoreCase(IDENTITY)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!contentEncoding.trim().equalsIgnoreCase(GZIP)) {
+            response.setHeader("Accept-Encoding", GZIP);
+            response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                    "Content encoding " + contentEncoding + " is not supported.");
+            return;
+        }
+        filterChain.doFilter(new DecompressedRequest(request, maxRequestBytes), response);
+    }
+
+    private static class DecompressedRequest extends HttpServletRequestWrapper {
+        private final long maxBytes;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        private DecompressedRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (reader != null) {
+                throw new IllegalStateException("getReader() has already been called for this request");
+            }
+            return decompressed();
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                if (inputStream != null) {
+                    throw new IllegalStateException("getInputStream() has already been called for this request");
+                }
+                String encoding = getCharacterEncoding();
+                reader = new BufferedReader(new InputStreamReader(decompressed(),
+                        encoding != null ? encoding : StandardCharsets.ISO_8859_1.name()));
+            }
+            return reader;
+        }
+
+        private ServletInputStream decompressed() throws IOException {
+            if (inputStream == null) {
+                inputStream = new DecompressedInputStream(super.getInputStream(), maxBytes);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isHiddenHeader(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isHiddenHeader(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isHiddenHeader(name))
+                    .collect(Collectors.toList()));
+        }
+
+        private static boolean isHiddenHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static class DecompressedInputStream extends ServletInputStream {
+        private final ServletInputStream compressed;
+        private final InputStream decompressed;
+        private final long maxBytes;
+        private long read;
+        private boolean finished;
+
+        private DecompressedInputStream(ServletInputStream compressed, long maxBytes) throws IOException {
+            this.compressed = compressed;
+            try {
+                this.decompressed = new GZIPInputStream(compressed);
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = decompressed.read();
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            count(b == -1 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n;
+            try {
+                n = decompressed.read(buffer, offset, length);
+            } catch (ZipException | EOFException e) {
+                throw malformed(e);
+            }
+            count(n);
+            return n;
+        }
+
+        /*
+        A bad gzip header or deflate data fails with ZipException, a body cut off in the middle with EOFException:
+        either way the client sent something that is not gzip.
+         */
+        private static MalformedRequestBodyException malformed(IOException e) {
+            return new MalformedRequestBodyException("Request body is not valid gzip: " + e.getMessage(), e);
+        }
+
+        private void count(int n) throws IOException {
+            if (n == -1) {
+                finished = true;
+                return;
+            }
+            read += n;
+            if (read > maxBytes) {
+                throw new RequestBodyTooLargeException(String.format(
+                        "Decompressed request body is larger than %d bytes.", maxBytes));
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return compressed.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException("Compressed request bodies are read blocking.");
+        }
+
+        @Override
+        public void close() throws IOException {
+            decompressed.close();
+        }
+    }
+}
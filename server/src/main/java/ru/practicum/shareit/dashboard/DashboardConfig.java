@@ -0,0 +1,27 @@
+package ru.practicum.shareit.dashboard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class DashboardConfig {
+    @Bean
+    public DashboardExecutor dashboardExecutor(TaskExecutorBuilder builder,
+                                               @Value("${shareit.dashboard.pool-size:4}") int poolSize,
+                                               @Value("${shareit.dashboard.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = builder
+                .corePoolSize(poolSize)
+                .maxPoolSize(poolSize)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("dashboard-")
+                .build();
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return new DashboardExecutor(executor);
+    }
+}
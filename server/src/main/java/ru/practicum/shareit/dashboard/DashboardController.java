@@ -0,0 +1,20 @@
+package ru.practicum.shareit.dashboard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping(path = "/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    @GetMapping("/owner")
+    public OwnerDashboardDto getOwnerDashboard(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                               @RequestParam(required = false) Optional<Integer> size) {
+        return dashboardService.getOwnerDashboard(ownerId, size);
+    }
+}
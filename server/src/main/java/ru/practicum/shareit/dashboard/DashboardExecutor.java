@@ -0,0 +1,27 @@
+package ru.practicum.shareit.dashboard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The pool the sections of dashboards are read on. It's deliberately not an Executor bean itself: Boot only sets up
+ * its applicationTaskExecutor, which streamed responses are written on, while no other Executor bean exists.
+ */
+public class DashboardExecutor implements DisposableBean {
+    private final ThreadPoolTaskExecutor executor;
+
+    public DashboardExecutor(ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
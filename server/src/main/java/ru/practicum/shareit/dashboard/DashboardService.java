@@ -0,0 +1,9 @@
+package ru.practicum.shareit.dashboard;
+
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+
+import java.util.Optional;
+
+public interface DashboardService {
+    OwnerDashboardDto getOwnerDashboard(Long ownerId, Optional<Integer> size);
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.dashboard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.utils.Utils;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class DashboardServiceImpl implements DashboardService {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final Executor dashboardExecutor;
+
+    @Autowired
+    public DashboardServiceImpl(UserService userService, ItemService itemService, BookingService bookingService,
+                                ItemRequestService itemRequestService, DashboardExecutor dashboardExecutor) {
+        this(userService, itemService, bookingService, itemRequestService, dashboardExecutor.getExecutor());
+    }
+
+    DashboardServiceImpl(UserService userService, ItemService itemService, BookingService bookingService,
+                         ItemRequestService itemRequestService, Executor dashboardExecutor) {
+        this.userService = userService;
+        this.itemService = itemService;
+        this.bookingService = bookingService;
+        this.itemRequestService = itemRequestService;
+        this.dashboardExecutor = dashboardExecutor;
+    }
+
+    @Override
+    public OwnerDashboardDto getOwnerDashboard(Long ownerId, Optional<Integer> size) {
+        if (size.isPresent() && size.get() <= 0) {
+            throw new ValidationFailException("Parameter 'size' must be positive!");
+        }
+        Optional<Integer> sectionSize = Optional.of(size.orElse(Utils.DEFAULT_PAGE_SIZE));
+        long start = System.nanoTime();
+        userService.read(ownerId);
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        CompletableFuture<List<ItemDto>> items = section("items", timings,
+                () -> itemService.getByUser(ownerId, 0, sectionSize));
+        CompletableFuture<List<BookingDto>> waitingBookings = ownerBookingsSection("waitingBookings", timings, items,
+                ownerId, "WAITING", sectionSize);
+        CompletableFuture<List<BookingDto>> currentBookings = ownerBookingsSection("currentBookings", timings, items,
+                ownerId, "CURRENT", sectionSize);
+        CompletableFuture<List<ItemRequestDto>> requests = section("requests", timings,
+                () -> itemRequestService.getAllRequests(ownerId, 0, sectionSize));
+        try {
+            CompletableFuture.allOf(items, waitingBookings, currentBookings, requests).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        Map<String, Long> orderedTimings = new TreeMap<>(timings);
+        orderedTimings.put("total", toMillis(System.nanoTime() - start));
+        log.info("Built owner dashboard for User with id = {} in {}.", ownerId, orderedTimings);
+        return new OwnerDashboardDto(items.join(), waitingBookings.join(), currentBookings.join(), requests.join(),
+                orderedTimings);
+    }
+
+    /*
+    An owner without items has no bookings, but the booking service answers that with a validation error, so booking
+    sections are only read once the items section has found some. Any error they raise is then a real one.
+     */
+    private CompletableFuture<List<BookingDto>> ownerBookingsSection(String name, Map<String, Long> timings,
+                                                                     CompletableFuture<List<ItemDto>> items,
+                                                                     Long ownerId, String state,
+                                                                     Optional<Integer> size) {
+        return items.thenCompose(ownerItems -> ownerItems.isEmpty()
+                ? CompletableFuture.completedFuture(Collections.<BookingDto>emptyList())
+                : section(name, timings, () -> bookingService.getAllOwnerBookings(ownerId, state, 0, size)));
+    }
+
+    private <T> CompletableFuture<T> section(String name, Map<String, Long> timings, Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                timings.put(name, toMillis(System.nanoTime() - start));
+            }
+        }, dashboardExecutor);
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
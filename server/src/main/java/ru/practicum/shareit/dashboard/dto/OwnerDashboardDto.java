@@ -0,0 +1,20 @@
+package ru.practicum.shareit.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class OwnerDashboardDto {
+    private final List<ItemDto> items;
+    private final List<BookingDto> waitingBookings;
+    private final List<BookingDto> currentBookings;
+    private final List<ItemRequestDto> requests;
+    private final Map<String, Long> timingsMillis;
+}
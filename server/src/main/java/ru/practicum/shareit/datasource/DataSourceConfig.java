@@ -0,0 +1,77 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.lane.LaneDataSource;
+import ru.practicum.shareit.lane.LaneTaskDecorator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    /*
+    Replicas share the credentials and the spring.datasource.hikari settings of the primary. They are not beans, so
+    Boot doesn't bind their metrics; they report to the same hikaricp meters as the primary, tagged with their pool
+    name. The registry is looked up when a pool starts: it depends on the data sources for its own binders.
+    Without shareit.datasource.replica-urls everything goes to the primary, as before. Every pool is wrapped into its
+    own lane limit, so a lane's share is taken of the pool that serves the connection; the limits sit under the lazy
+    proxy, so only requests that really reach the database take a connection of their lane.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, ReadYourWritesTracker readYourWritesTracker,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.datasource.replica-urls:}") List<String> replicaUrls) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String replicaUrl : replicaUrls) {
+            if (replicaUrl.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(replicaUrl.trim());
+            replica.setMetricsTrackerFactory((poolName, poolStats) ->
+                    new MicrometerMetricsTrackerFactory(meterRegistry.getObject()).create(poolName, poolStats));
+            replica.setPoolName(ReplicaRoutingDataSource.REPLICA_PREFIX + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(new LaneDataSource(replica, true));
+        }
+        return new ReplicaRoutingDataSource(new LaneDataSource(primaryDataSource, false), replicas,
+                readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /*
+    Boot applies the task decorator to every executor it builds: the one streamed responses are written on and the
+    dashboard pool. It takes a single decorator, so this one carries the lane gate of the request as well.
+     */
+    @Bean
+    public TaskDecorator taskDecorator() {
+        return new ReadYourWritesTaskDecorator(new LaneTaskDecorator());
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs a task as the user of the request that submitted it, so that its reads (dashboard sections, streamed exports)
+ * go to the primary right after a write of that user, like the reads of the request itself. The user id is taken
+ * when the task is submitted: the request may be gone by the time the task runs. Decorates the task further with
+ * {@code delegate}, as an executor takes a single decorator.
+ */
+public class ReadYourWritesTaskDecorator implements TaskDecorator {
+    private final TaskDecorator delegate;
+
+    public ReadYourWritesTaskDecorator(TaskDecorator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable decorated = delegate.decorate(runnable);
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (userId == null) {
+            return decorated;
+        }
+        return () -> {
+            Long previous = ReadYourWritesTracker.bindTaskUserId(userId);
+            try {
+                decorated.run();
+            } finally {
+                ReadYourWritesTracker.bindTaskUserId(previous);
+            }
+        };
+    }
+}
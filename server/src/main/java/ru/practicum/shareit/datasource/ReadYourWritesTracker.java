@@ -0,0 +1,113 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers users that have just written something replicas may not have applied yet. For the configured window
+ * after the commit, read-only transactions of the request made by such a user are served by the primary.
+ * The window should cover the usual replica lag. Tasks a request hands to an executor read as the user of the request,
+ * see {@link ReadYourWritesTaskDecorator}.
+ */
+@Slf4j
+@Component
+public class ReadYourWritesTracker {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int CLEANUP_THRESHOLD = 10_000;
+    private static final ThreadLocal<Long> TASK_USER_ID = new ThreadLocal<>();
+
+    private final Map<Long, Long> pinnedUntilNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${shareit.datasource.read-your-writes-millis:5000}") long windowMillis) {
+        this.windowNanos = Duration.ofMillis(windowMillis).toNanos();
+    }
+
+    public void recordWrite(Long... userIds) {
+        Runnable action = () -> {
+            long pinnedUntil = System.nanoTime() + windowNanos;
+            for (Long userId : userIds) {
+                if (userId != null) {
+                    pinnedUntilNanos.put(userId, pinnedUntil);
+                }
+            }
+            if (pinnedUntilNanos.size() > CLEANUP_THRESHOLD) {
+                long now = System.nanoTime();
+                pinnedUntilNanos.values().removeIf(until -> until - now <= 0);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    public boolean isPrimaryRequired() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long pinnedUntil = pinnedUntilNanos.get(userId);
+        if (pinnedUntil == null) {
+            return false;
+        }
+        if (pinnedUntil - System.nanoTime() > 0) {
+            log.debug("Routing read of User with id = {} to primary after a recent write.", userId);
+            return true;
+        }
+        pinnedUntilNanos.remove(userId, pinnedUntil);
+        return false;
+    }
+
+    /**
+     * Makes {@code userId} the user of the current thread and returns the one it had.
+     */
+    @Nullable
+    static Long bindTaskUserId(@Nullable Long userId) {
+        Long previous = TASK_USER_ID.get();
+        if (userId == null) {
+            TASK_USER_ID.remove();
+        } else {
+            TASK_USER_ID.set(userId);
+        }
+        return previous;
+    }
+
+    @Nullable
+    static Long currentUserId() {
+        Long taskUserId = TASK_USER_ID.get();
+        if (taskUserId != null) {
+            return taskUserId;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String header = ((ServletRequestAttributes) attributes).getRequest().getHeader(USER_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
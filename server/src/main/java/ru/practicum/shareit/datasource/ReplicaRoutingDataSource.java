@@ -0,0 +1,118 @@
+package ru.practicum.shareit.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas in round-robin order and everything else to the primary.
+ * Has to be wrapped into a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * read-only flag of a transaction is only known after the transaction manager asked for a connection.
+ * <p>
+ * A replica may lag behind the primary, so what a transaction read from it must not be put into a cache: after a
+ * write, a lagging replica would put the state from before the write back for as long as the cache keeps it.
+ * Such a transaction only reads the second-level cache of Hibernate, and other caches ask
+ * {@link #isCurrentTransactionOnReplica()} before they store anything.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    static final String PRIMARY = "primary";
+    static final String REPLICA_PREFIX = "replica-";
+
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targetDataSources.put(REPLICA_PREFIX + i, this.replicas.get(i));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || readYourWritesTracker.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        markReplicaRead();
+        return REPLICA_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    public static boolean isCurrentTransactionOnReplica() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof ReplicaRead) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+    The mark is a synchronization rather than a bound resource: synchronizations are suspended with their
+    transaction, so a REQUIRES_NEW transaction started from a replica read doesn't inherit the mark. The session may
+    outlive the transaction when it is opened in view, hence the cache mode is restored on completion.
+     */
+    private static void markReplicaRead() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || isCurrentTransactionOnReplica()) {
+            return;
+        }
+        Session session = null;
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                session = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class);
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new ReplicaRead(session));
+    }
+
+    private static class ReplicaRead implements TransactionSynchronization {
+        private final Session session;
+        private final CacheMode previousCacheMode;
+
+        private ReplicaRead(Session session) {
+            this.session = session;
+            this.previousCacheMode = session == null ? null : session.getCacheMode();
+            if (session != null) {
+                session.setCacheMode(CacheMode.GET);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (session != null && session.isOpen()) {
+                session.setCacheMode(previousCacheMode);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica.isWrapperFor(AutoCloseable.class)) {
+                replica.unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+}
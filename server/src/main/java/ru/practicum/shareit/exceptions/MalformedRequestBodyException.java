@@ -0,0 +1,9 @@
+package ru.practicum.shareit.exceptions;
+
+import java.io.IOException;
+
+public class MalformedRequestBodyException extends IOException {
+    public MalformedRequestBodyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
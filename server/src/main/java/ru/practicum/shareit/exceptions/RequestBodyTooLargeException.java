@@ -0,0 +1,9 @@
+package ru.practicum.shareit.exceptions;
+
+import java.io.IOException;
+
+public class RequestBodyTooLargeException extends IOException {
+    public RequestBodyTooLargeException(String message) {
+        super(message);
+    }
+}
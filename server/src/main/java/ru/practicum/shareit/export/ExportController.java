@@ -0,0 +1,38 @@
+package ru.practicum.shareit.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+
+@RestController
+@RequiredArgsConstructor
+public class ExportController {
+    private final ExportService exportService;
+
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                  @RequestParam(required = false,
+                                                                          defaultValue = "NDJSON") String format) {
+        ExportFormat exportFormat = toExportFormat(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportService.exportOwnerItems(ownerId, exportFormat));
+    }
+
+    @GetMapping("/bookings/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                     @RequestParam(required = false,
+                                                                             defaultValue = "NDJSON") String format) {
+        ExportFormat exportFormat = toExportFormat(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportService.exportOwnerBookings(ownerId, exportFormat));
+    }
+
+    private static ExportFormat toExportFormat(String format) {
+        return ExportFormat.from(format)
+                .orElseThrow(() -> new ValidationFailException("Unknown export format: " + format));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.export;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface ExportService {
+    StreamingResponseBody exportOwnerItems(Long ownerId, ExportFormat format);
+
+    StreamingResponseBody exportOwnerBookings(Long ownerId, ExportFormat format);
+}
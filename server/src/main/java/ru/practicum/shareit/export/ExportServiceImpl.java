@@ -0,0 +1,107 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+    private static final List<String> ITEM_COLUMNS = List.of("id", "name", "description", "available", "requestId");
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "start", "end", "status", "itemId", "itemName",
+            "bookerId");
+
+    private final UserExistenceChecker userExistenceChecker;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(UserExistenceChecker userExistenceChecker, ItemRepository itemRepository,
+                             BookingRepository bookingRepository, EntityManager entityManager,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.userExistenceChecker = userExistenceChecker;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerItems(Long ownerId, ExportFormat format) {
+        userExistenceChecker.requireExists(ownerId);
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            AtomicLong exported = new AtomicLong();
+            try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderByIdAsc(ownerId);
+                 ExportWriter writer = new ExportWriter(format, objectMapper, ITEM_COLUMNS, outputStream)) {
+                items.forEach(item -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("id", item.getId());
+                    row.put("name", item.getName());
+                    row.put("description", item.getDescription());
+                    row.put("available", item.getAvailable());
+                    row.put("requestId", item.getRequestId());
+                    writer.write(row);
+                    entityManager.detach(item);
+                    exported.incrementAndGet();
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Exported {} Items of User with id = {}.", exported.get(), ownerId);
+        });
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerBookings(Long ownerId, ExportFormat format) {
+        userExistenceChecker.requireExists(ownerId);
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            Map<Long, String> itemNames = itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId).stream()
+                    .collect(Collectors.toMap(Item::getId, Item::getName));
+            entityManager.clear();
+            AtomicLong exported = new AtomicLong();
+            try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(ownerId);
+                 ExportWriter writer = new ExportWriter(format, objectMapper, BOOKING_COLUMNS, outputStream)) {
+                bookings.forEach(booking -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("id", booking.getId());
+                    row.put("start", booking.getStartDate());
+                    row.put("end", booking.getEndDate());
+                    row.put("status", booking.getStatus());
+                    row.put("itemId", booking.getItemId());
+                    row.put("itemName", itemNames.get(booking.getItemId()));
+                    row.put("bookerId", booking.getBookerId());
+                    writer.write(row);
+                    entityManager.detach(booking);
+                    exported.incrementAndGet();
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("Exported {} Bookings of owner with id = {}.", exported.get(), ownerId);
+        });
+    }
+}
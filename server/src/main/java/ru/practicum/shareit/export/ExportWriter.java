@@ -0,0 +1,66 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+class ExportWriter implements Closeable {
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final List<String> columns;
+    private final Writer writer;
+    private boolean headerWritten;
+
+    ExportWriter(ExportFormat format, ObjectMapper objectMapper, List<String> columns, OutputStream outputStream) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    void write(Map<String, Object> row) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+            } else {
+                if (!headerWritten) {
+                    writer.write(String.join(",", columns));
+                    writer.write('\n');
+                    headerWritten = true;
+                }
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(toCsvValue(row.get(columns.get(i))));
+                }
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (format == ExportFormat.CSV && !headerWritten) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String stringValue = value.toString();
+        if (stringValue.contains(",") || stringValue.contains("\"") || stringValue.contains("\n")) {
+            return "\"" + stringValue.replace("\"", "\"\"") + "\"";
+        }
+        return stringValue;
+    }
+}
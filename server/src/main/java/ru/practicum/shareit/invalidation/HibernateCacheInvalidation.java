@@ -0,0 +1,151 @@
+package ru.practicum.shareit.invalidation;
+
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps the second-level cache of other nodes in line with entity writes made here. Hibernate already updates the
+ * local cache, so only other nodes evict the entity; they also mark the tables of the entity as changed in their
+ * timestamps cache, which is how Hibernate itself tells which cached query results a write made stale. Rows written
+ * past Hibernate are reported with {@link #invalidateQueries}.
+ */
+@Component
+public class HibernateCacheInvalidation implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+    private static final String ENTITY_REGION_PREFIX = "hibernate.entity:";
+    private static final String QUERY_REGION_PREFIX = "hibernate.queries:";
+
+    private final EntityManager entityManager;
+    private final InvalidationBus invalidationBus;
+    private final SessionFactoryImplementor sessionFactory;
+
+    public HibernateCacheInvalidation(EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                                      InvalidationBus invalidationBus) {
+        this.entityManager = entityManager;
+        this.invalidationBus = invalidationBus;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Cache cache = sessionFactory.getCache();
+        for (EntityPersister persister : sessionFactory.getMetamodel().entityPersisters().values()) {
+            if (!persister.canWriteToCache()) {
+                continue;
+            }
+            String entityName = persister.getEntityName();
+            String[] spaces = querySpaces(persister);
+            invalidationBus.subscribeRemote(ENTITY_REGION_PREFIX + entityName, new InvalidationListener() {
+                @Override
+                public void evict(long key) {
+                    cache.evictEntityData(entityName, key);
+                    invalidateQuerySpaces(spaces);
+                }
+
+                @Override
+                public void evictAll() {
+                    cache.evictEntityData(entityName);
+                    invalidateQuerySpaces(spaces);
+                }
+            });
+        }
+        for (String queryRegion : List.of(Item.QUERY_CACHE_REGION, ItemRequest.QUERY_CACHE_REGION)) {
+            invalidationBus.subscribeRemote(QUERY_REGION_PREFIX + queryRegion, new InvalidationListener() {
+                @Override
+                public void evict(long key) {
+                    cache.evictQueryRegion(queryRegion);
+                }
+
+                @Override
+                public void evictAll() {
+                    cache.evictQueryRegion(queryRegion);
+                }
+            });
+        }
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * Marks cached query results over the tables of the entity as stale, for rows of it written in the current
+     * transaction past Hibernate. Locally this is what Hibernate does for its own bulk writes: the results are
+     * stale from now on, so none read before the commit can be put back either. Other nodes evict the query region
+     * once the transaction has committed.
+     */
+    public void invalidateQueries(Class<?> entityClass, String queryRegion) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        String[] spaces = querySpaces(sessionFactory.getMetamodel().entityPersister(entityClass));
+        TimestampsCache timestampsCache = sessionFactory.getCache().getTimestampsCache();
+        timestampsCache.preInvalidate(spaces, session);
+        session.getActionQueue().registerProcess((success, completedSession) ->
+                timestampsCache.invalidate(spaces, completedSession));
+        invalidationBus.publish(QUERY_REGION_PREFIX + queryRegion, 0);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /*
+    Still abstract in Hibernate 5.6, though only its replacement above is called; the override just satisfies the
+    interface.
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    private void invalidateQuerySpaces(String[] spaces) {
+        try (Session session = sessionFactory.openSession()) {
+            sessionFactory.getCache().getTimestampsCache().invalidate(spaces, (SessionImplementor) session);
+        }
+    }
+
+    private static String[] querySpaces(EntityPersister persister) {
+        return Arrays.stream(persister.getQuerySpaces())
+                .map(String.class::cast)
+                .toArray(String[]::new);
+    }
+
+    private void publish(EntityPersister persister, Serializable id) {
+        if (persister.canWriteToCache() && id instanceof Number) {
+            invalidationBus.publish(ENTITY_REGION_PREFIX + persister.getEntityName(), ((Number) id).longValue());
+        }
+    }
+}
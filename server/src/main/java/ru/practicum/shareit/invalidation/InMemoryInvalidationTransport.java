@@ -0,0 +1,33 @@
+package ru.practicum.shareit.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers messages synchronously to every bus subscribed to the same instance. Used by single-node setups and
+ * tests, where several buses sharing one transport stand for several nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.invalidation.transport", havingValue = "memory", matchIfMissing = true)
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public void publish(String message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        subscribers.add(onMessage);
+    }
+}
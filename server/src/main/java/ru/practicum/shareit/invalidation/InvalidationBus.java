@@ -0,0 +1,144 @@
+package ru.practicum.shareit.invalidation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts cached entries on every node once the change that made them stale is committed. A region names one cache,
+ * a key is an entity id within it. Messages are {@code region|key|publishedAtMillis|nodeId}; a node ignores its own
+ * messages, because local listeners are called directly when publishing.
+ * <p>
+ * A transactional transport gets the message inside the writing transaction, so it is sent with the commit and
+ * needs no connection of its own; if it can't be sent, the write fails instead of leaving other nodes stale.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final Map<String, List<InvalidationListener>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, List<InvalidationListener>> remoteListeners = new ConcurrentHashMap<>();
+    private final Timer latency;
+    private final Counter published;
+    private final Counter received;
+    private final Counter failed;
+
+    public InvalidationBus(InvalidationTransport transport, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.latency = Timer.builder("shareit.invalidation.latency")
+                .description("Time from publishing an invalidation on one node to evicting it on another")
+                .tag("transport", transport.name())
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.published = Counter.builder("shareit.invalidation.published")
+                .tag("transport", transport.name())
+                .register(meterRegistry);
+        this.received = Counter.builder("shareit.invalidation.received")
+                .tag("transport", transport.name())
+                .register(meterRegistry);
+        this.failed = Counter.builder("shareit.invalidation.failed")
+                .tag("transport", transport.name())
+                .register(meterRegistry);
+        transport.subscribe(this::receive, this::evictAll);
+    }
+
+    /**
+     * The listener is called for changes committed on this node and on the others.
+     */
+    public void subscribe(String region, InvalidationListener listener) {
+        listeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * The listener is called only for changes committed on other nodes, for caches that keep themselves up to date
+     * with local changes.
+     */
+    public void subscribeRemote(String region, InvalidationListener listener) {
+        remoteListeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void publish(String region, long key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLocally(region, key);
+            send(region, key);
+            return;
+        }
+        if (transport.isTransactional()) {
+            sendWithCommit(region, key);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLocally(region, key);
+                if (!transport.isTransactional()) {
+                    send(region, key);
+                }
+            }
+        });
+    }
+
+    private void evictLocally(String region, long key) {
+        listeners.getOrDefault(region, Collections.emptyList()).forEach(listener -> listener.evict(key));
+    }
+
+    private void sendWithCommit(String region, long key) {
+        try {
+            transport.publish(message(region, key));
+        } catch (RuntimeException e) {
+            failed.increment();
+            throw e;
+        }
+        published.increment();
+    }
+
+    private void send(String region, long key) {
+        try {
+            transport.publish(message(region, key));
+            published.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Failed to publish invalidation of key {} in region {}.", key, region, e);
+        }
+    }
+
+    private String message(String region, long key) {
+        return String.join(SEPARATOR, region, Long.toString(key), Long.toString(System.currentTimeMillis()), nodeId);
+    }
+
+    private void receive(String message) {
+        String[] parts = message.split("\\" + SEPARATOR);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed invalidation message '{}'.", message);
+            return;
+        }
+        if (nodeId.equals(parts[3])) {
+            return;
+        }
+        long key = Long.parseLong(parts[1]);
+        listeners.getOrDefault(parts[0], Collections.emptyList()).forEach(listener -> listener.evict(key));
+        remoteListeners.getOrDefault(parts[0], Collections.emptyList()).forEach(listener -> listener.evict(key));
+        received.increment();
+        latency.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[2])), TimeUnit.MILLISECONDS);
+        log.debug("Evicted key {} in region {} changed on another node.", key, parts[0]);
+    }
+
+    private void evictAll() {
+        listeners.values().forEach(regionListeners -> regionListeners.forEach(InvalidationListener::evictAll));
+        remoteListeners.values().forEach(regionListeners -> regionListeners.forEach(InvalidationListener::evictAll));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.invalidation;
+
+public interface InvalidationListener {
+    void evict(long key);
+
+    /**
+     * Called when notifications may have been lost, e.g. after the transport reconnected.
+     */
+    void evictAll();
+}
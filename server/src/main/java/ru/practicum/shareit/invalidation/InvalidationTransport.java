@@ -0,0 +1,23 @@
+package ru.practicum.shareit.invalidation;
+
+import java.util.function.Consumer;
+
+public interface InvalidationTransport {
+    String name();
+
+    void publish(String message);
+
+    /**
+     * Whether a message published inside a transaction is delivered only when, and only if, that transaction
+     * commits. The bus publishes to such a transport right away, and to the others after the commit.
+     */
+    default boolean isTransactional() {
+        return false;
+    }
+
+    /**
+     * Messages published by any node, this one included, are passed to {@code onMessage}. {@code onGap} is called
+     * whenever messages may have been missed.
+     */
+    void subscribe(Consumer<String> onMessage, Runnable onGap);
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Publishes with {@code pg_notify} in the transaction of the caller, so PostgreSQL delivers the notification with
+ * the commit and drops it on rollback, and listens on a dedicated connection opened outside the pool. After that
+ * connection is re-established every subscriber is told about the gap, since notifications sent while it was down
+ * are lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.invalidation.transport", havingValue = "postgres")
+public class PostgresInvalidationTransport implements InvalidationTransport, DisposableBean {
+    private static final String CHANNEL = "shareit_invalidation";
+    private static final String NOTIFY = "SELECT pg_notify('" + CHANNEL + "', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> gapHandlers = new CopyOnWriteArrayList<>();
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate, DataSourceProperties properties,
+                                         @Value("${shareit.invalidation.postgres.poll-millis:500}") int pollMillis,
+                                         @Value("${shareit.invalidation.postgres.reconnect-millis:5000}")
+                                         long reconnectMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = properties.determineUrl();
+        this.username = properties.determineUsername();
+        this.password = properties.determinePassword();
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+        this.listener = new Thread(this::listen, "invalidation-listener");
+        this.listener.setDaemon(true);
+        this.listener.start();
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    @Override
+    public void publish(String message) {
+        jdbcTemplate.query(NOTIFY, rs -> null, message);
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        subscribers.add(onMessage);
+        gapHandlers.add(onGap);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(pollMillis * 2L);
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnecting) {
+                    log.info("Invalidation listener reconnected, evicting everything that may have been missed.");
+                    gapHandlers.forEach(Runnable::run);
+                }
+                reconnecting = true;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener connection failed, reconnecting in {} ms.", reconnectMillis, e);
+                    try {
+                        Thread.sleep(reconnectMillis);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private void dispatch(String message) {
+        for (Consumer<String> subscriber : subscribers) {
+            try {
+                subscriber.accept(message);
+            } catch (RuntimeException e) {
+                log.error("Failed to handle invalidation message '{}'.", message, e);
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 public class CommentMapper {
     public static CommentDto toCommentDto(Comment comment) {
@@ -21,7 +22,7 @@ public class CommentMapper {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
         comment.setAuthorName(user.getName());
-        comment.setCreated(LocalDateTime.now());
+        comment.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
         comment.setItemId(itemId);
         return comment;
     }
@@ -1,10 +1,34 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByItemIdIn(List<Long> itemIds);
+
+    @Query(value = "SELECT id, item_id, text, author_name, created FROM ("
+            + "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created DESC, c.id DESC) AS row_num "
+            + "FROM comments c WHERE c.item_id IN (?1)) ranked "
+            + "WHERE row_num <= ?2 ORDER BY item_id, created DESC, id DESC", nativeQuery = true)
+    List<Comment> findRecentByItemIdIn(List<Long> itemIds, int limit);
+
+    @Query("select c.itemId as itemId, count(c) as count from Comment c where c.itemId in ?1 group by c.itemId")
+    List<CommentCount> countByItemIdIn(List<Long> itemIds);
+
+    List<Comment> findAllByItemIdOrderByCreatedDescIdDesc(Long itemId, Pageable pageable);
+
+    @Query("select c from Comment c where c.itemId = ?1 and (c.created < ?2 or (c.created = ?2 and c.id < ?3)) "
+            + "order by c.created desc, c.id desc")
+    List<Comment> findAllByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+
+    interface CommentCount {
+        Long getItemId();
+
+        Long getCount();
+    }
 }
@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +23,7 @@ import java.util.Optional;
 @AllArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDto add(@RequestHeader("X-Sharer-User-Id") long id,
@@ -30,8 +39,16 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
-        return itemService.getById(userId, itemId);
+    public ResponseEntity<ItemDto> getById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @PathVariable long itemId) {
+        Tagged<ItemDto> item = itemService.getTaggedById(userId, itemId);
+        return ResponseEntity.ok().eTag(item.getETag()).body(item.getBody());
+    }
+
+    @GetMapping(params = "ids")
+    public MultiGetDto<ItemDto> getByIds(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestParam List<Long> ids) {
+        return itemService.getByIds(userId, ids);
     }
 
     @GetMapping
@@ -48,6 +65,22 @@ public class ItemController {
         return itemService.searchItems(text, from, size);
     }
 
+    @PostMapping("/import")
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestParam(required = false, defaultValue = "NDJSON") String format,
+                                           InputStream inputStream) {
+        ExportFormat importFormat = ExportFormat.from(format)
+                .orElseThrow(() -> new ValidationFailException("Unknown import format: " + format));
+        return itemImportService.importItems(userId, importFormat, inputStream);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public CommentPageDto getComments(@PathVariable long itemId,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Optional<Integer> size) {
+        return itemService.getComments(itemId, cursor, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable Long itemId,
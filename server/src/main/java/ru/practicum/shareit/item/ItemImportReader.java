@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an item import body one line at a time, so the whole upload is never held in memory.
+ * CSV input must start with a header row; quoted values may contain commas but not line breaks.
+ */
+class ItemImportReader implements Closeable {
+    static final List<String> COLUMNS = List.of("name", "description", "available", "requestId");
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final BufferedReader reader;
+    private List<String> header;
+    private long lineNumber;
+
+    ItemImportReader(ExportFormat format, ObjectMapper objectMapper, InputStream inputStream) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ExportFormat.CSV && header == null) {
+                header = parseCsv(line);
+                if (!header.containsAll(List.of("name", "description", "available"))) {
+                    throw new ValidationFailException("CSV header must contain name, description and available!");
+                }
+                continue;
+            }
+            return format == ExportFormat.NDJSON ? readJson(line) : readCsv(line);
+        }
+        return null;
+    }
+
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row readJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return new Row(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new Row(lineNumber, null, "Row must be a JSON object!");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String column : COLUMNS) {
+            JsonNode value = node.get(column);
+            values.put(column, value == null || value.isNull() ? null : value.asText());
+        }
+        return new Row(lineNumber, values, null);
+    }
+
+    private Row readCsv(String line) {
+        List<String> fields = parseCsv(line);
+        if (fields.size() != header.size()) {
+            return new Row(lineNumber, null, String.format("Expected %s columns but got %s!", header.size(),
+                    fields.size()));
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            values.put(header.get(i), fields.get(i).isEmpty() ? null : fields.get(i));
+        }
+        return new Row(lineNumber, values, null);
+    }
+
+    private static List<String> parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static class Row {
+        final long line;
+        final Map<String, String> values;
+        final String error;
+
+        private Row(long line, Map<String, String> values, String error) {
+            this.line = line;
+            this.values = values;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.InputStream;
+
+public interface ItemImportService {
+    ItemImportResultDto importItems(Long ownerId, ExportFormat format, InputStream inputStream);
+}
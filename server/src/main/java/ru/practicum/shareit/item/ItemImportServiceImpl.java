@@ -0,0 +1,208 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.invalidation.HibernateCacheInvalidation;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserExistenceChecker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int MAX_NAME_LENGTH = 64;
+    private static final int MAX_DESCRIPTION_LENGTH = 256;
+    private static final String INSERT_ITEM = "INSERT INTO items (name, description, is_available, owner_id, "
+            + "request_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final UserExistenceChecker userExistenceChecker;
+    private final ItemRequestRepository itemRequestRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final HibernateCacheInvalidation hibernateCacheInvalidation;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeLog changeLog;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ItemImportServiceImpl(UserExistenceChecker userExistenceChecker,
+                                 ItemRequestRepository itemRequestRepository, JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper, HibernateCacheInvalidation hibernateCacheInvalidation,
+                                 PlatformTransactionManager transactionManager, ChangeLog changeLog,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 @Value("${shareit.items.import.batch-size:1000}") int batchSize,
+                                 @Value("${shareit.items.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.userExistenceChecker = userExistenceChecker;
+        this.itemRequestRepository = itemRequestRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.hibernateCacheInvalidation = hibernateCacheInvalidation;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeLog = changeLog;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Long ownerId, ExportFormat format, InputStream inputStream) {
+        userExistenceChecker.requireExists(ownerId);
+        Map<Long, Boolean> knownRequests = new HashMap<>();
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long firstBatchLine = 0;
+        long imported = 0;
+        long rejected = 0;
+        try (ItemImportReader reader = new ItemImportReader(format, objectMapper, inputStream)) {
+            ItemImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                String error = row.error != null ? row.error : validate(row.values, knownRequests);
+                if (error != null) {
+                    rejected++;
+                    addError(errors, row.line, error);
+                    continue;
+                }
+                if (batch.isEmpty()) {
+                    firstBatchLine = row.line;
+                }
+                batch.add(toParameters(row.values, ownerId));
+                if (batch.size() == batchSize) {
+                    long inserted = insertBatch(ownerId, batch, firstBatchLine, row.line, errors);
+                    imported += inserted;
+                    rejected += batch.size() - inserted;
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                long inserted = insertBatch(ownerId, batch, firstBatchLine, reader.getLineNumber(), errors);
+                imported += inserted;
+                rejected += batch.size() - inserted;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Imported {} Items of User with id = {}, rejected {} rows.", imported, ownerId, rejected);
+        return new ItemImportResultDto(imported, rejected, errors);
+    }
+
+    private String validate(Map<String, String> values, Map<Long, Boolean> knownRequests) {
+        String name = values.get("name");
+        if (name == null || name.isBlank()) {
+            return "Field 'name' can't be blank!";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return String.format("Field 'name' can't be longer than %s characters!", MAX_NAME_LENGTH);
+        }
+        String description = values.get("description");
+        if (description == null || description.isBlank()) {
+            return "Field 'description' can't be blank!";
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            return String.format("Field 'description' can't be longer than %s characters!", MAX_DESCRIPTION_LENGTH);
+        }
+        String available = values.get("available");
+        if (!"true".equalsIgnoreCase(available) && !"false".equalsIgnoreCase(available)) {
+            return "Field 'available' must be true or false!";
+        }
+        String requestId = values.get("requestId");
+        if (requestId != null) {
+            long id;
+            try {
+                id = Long.parseLong(requestId);
+            } catch (NumberFormatException e) {
+                return "Field 'requestId' must be a number!";
+            }
+            if (!knownRequests.computeIfAbsent(id, itemRequestRepository::existsById)) {
+                return String.format("ItemRequest with id = %s doesn't exist!", id);
+            }
+        }
+        return null;
+    }
+
+    private static Object[] toParameters(Map<String, String> values, Long ownerId) {
+        String requestId = values.get("requestId");
+        return new Object[]{
+                values.get("name"),
+                values.get("description"),
+                Boolean.parseBoolean(values.get("available")),
+                ownerId,
+                requestId != null ? Long.valueOf(requestId) : null
+        };
+    }
+
+    private long insertBatch(Long ownerId, List<Object[]> batch, long firstLine, long lastLine,
+                             List<ItemImportErrorDto> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                changeLog.recordAll(ChangeType.ITEM, insertItems(batch));
+                // Rows inserted through JDBC bypass Hibernate, so cached item lists have to be invalidated explicitly.
+                hibernateCacheInvalidation.invalidateQueries(Item.class, Item.QUERY_CACHE_REGION);
+                readYourWritesTracker.recordWrite(ownerId);
+            });
+            return batch.size();
+        } catch (DataAccessException e) {
+            log.warn("Failed to import Items from lines {}-{} of User with id = {}.", firstLine, lastLine, ownerId, e);
+            addError(errors, firstLine, String.format("Rows on lines %s-%s were rejected: %s", firstLine, lastLine,
+                    e.getMostSpecificCause().getMessage()));
+            return 0;
+        }
+    }
+
+    /*
+    The ids of the new rows come from the generated keys of the batch itself; looking them up afterwards would also
+    find items that the same owner added concurrently.
+     */
+    private List<Long> insertItems(List<Object[]> batch) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM, new String[]{"id"})) {
+                for (Object[] parameters : batch) {
+                    for (int i = 0; i < parameters.length; i++) {
+                        StatementCreatorUtils.setParameterValue(statement, i + 1, SqlTypeValue.TYPE_UNKNOWN,
+                                parameters[i]);
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                List<Long> itemIds = new ArrayList<>(batch.size());
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        itemIds.add(generatedKeys.getLong(1));
+                    }
+                }
+                return itemIds;
+            }
+        });
+    }
+
+    private void addError(List<ItemImportErrorDto> errors, long line, String error) {
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ItemImportErrorDto(line, error));
+        }
+    }
+}
@@ -11,6 +11,11 @@ import java.util.List;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking, List<CommentDto> comments) {
+        return toItemDto(item, lastBooking, nextBooking, comments, null);
+    }
+
+    public static ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking, List<CommentDto> comments,
+                                    Long commentsCount) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
@@ -19,7 +24,8 @@ public class ItemMapper {
                 BookingMapper.toBookingInfoDto(lastBooking),
                 BookingMapper.toBookingInfoDto(nextBooking),
                 comments,
-                item.getRequestId()
+                item.getRequestId(),
+                commentsCount
         );
     }
 
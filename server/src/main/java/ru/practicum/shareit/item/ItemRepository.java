@@ -2,11 +2,21 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Item.QUERY_CACHE_REGION)})
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId);
 
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
@@ -15,5 +25,10 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
                                                                            String descriptionSearch,
                                                                            Pageable pageable);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Item.QUERY_CACHE_REGION)})
     List<Item> findAllByRequestIdIn(List<Long> requestIds);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")})
+    Stream<Item> streamAllByOwnerIdOrderByIdAsc(Long ownerId);
 }
@@ -2,7 +2,10 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,9 +17,15 @@ public interface ItemService {
 
     ItemDto getById(long userId, long itemId);
 
+    Tagged<ItemDto> getTaggedById(long userId, long itemId);
+
+    MultiGetDto<ItemDto> getByIds(long userId, List<Long> itemIds);
+
     List<ItemDto> getByUser(long userId, Integer from, Optional<Integer> size);
 
     List<ItemDto> searchItems(String text, Integer from, Optional<Integer> size);
 
+    CommentPageDto getComments(long itemId, String cursor, Optional<Integer> size);
+
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto text);
 }
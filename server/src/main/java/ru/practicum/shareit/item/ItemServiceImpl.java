@@ -11,18 +11,28 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ForbiddenAccessException;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 import ru.practicum.shareit.utils.Utils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -31,17 +41,26 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int RECENT_COMMENTS_LIMIT = 10;
+    private static final String CURSOR_SEPARATOR = "_";
+
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ChangeLog changeLog;
+    private final ItemViewCache itemViewCache;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Transactional
     @Override
     public ItemDto add(long userId, ItemDto itemDto) {
-        User owner = userRepository.findById(userId).orElseThrow();
-        Item item = ItemMapper.toItem(itemDto, owner.getId());
+        userExistenceChecker.requireExists(userId);
+        Item item = ItemMapper.toItem(itemDto, userId);
         Item addedItem = itemRepository.save(item);
+        changeLog.record(ChangeType.ITEM, addedItem.getId());
+        readYourWritesTracker.recordWrite(userId);
         log.info("Added new Item: {}.", addedItem);
         return ItemMapper.toItemDto(addedItem, null, null, null);
     }
@@ -66,46 +85,85 @@ public class ItemServiceImpl implements ItemService {
         });
         Optional.ofNullable(item.getAvailable()).ifPresent(itemToUpdate::setAvailable);
         Item updatedItem = itemRepository.save(itemToUpdate);
+        changeLog.record(ChangeType.ITEM, updatedItem.getId());
+        itemViewCache.invalidate(itemId);
+        readYourWritesTracker.recordWrite(userId);
         log.info("Updated Item: {}.", updatedItem);
         return ItemMapper.toItemDto(updatedItem, null, null, null);
     }
 
     @Override
     public ItemDto getById(long userId, long itemId) {
+        Optional<ItemDto> cachedItem = itemViewCache.get(itemId, userId);
+        if (cachedItem.isPresent()) {
+            log.info("Read Item with id = {} from cache.", itemId);
+            return cachedItem.get();
+        }
+        long generation = itemViewCache.generation(itemId);
         Item item = itemRepository.findById(itemId).orElseThrow();
-        List<CommentDto> comments = commentRepository.findAllByItemIdIn(List.of(item.getId()))
-                .stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        ItemDto itemDto;
+        List<CommentDto> comments = findRecentComments(List.of(itemId)).getOrDefault(itemId, List.of());
+        Long commentsCount = countComments(List.of(itemId)).getOrDefault(itemId, 0L);
+        ItemDto itemDto = ItemMapper.toItemDto(item, null, null, comments, commentsCount);
+        itemViewCache.put(itemId, item.getOwnerId(), false, itemDto, null, generation);
         if (Objects.equals(item.getOwnerId(), userId)) {
             List<Booking> bookings = bookingRepository.findAllByItemIdIn(List.of(item.getId()));
             BookingInfo bookingInfo = findLastAndNextBooking(bookings, List.of(itemId)).get(itemId);
-            itemDto = ItemMapper.toItemDto(item, bookingInfo.getLastBooking(), bookingInfo.getNextBooking(), comments);
-        } else {
-            itemDto = ItemMapper.toItemDto(item, null, null, comments);
+            itemDto = ItemMapper.toItemDto(item, bookingInfo.getLastBooking(), bookingInfo.getNextBooking(), comments,
+                    commentsCount);
+            itemViewCache.put(itemId, item.getOwnerId(), true, itemDto,
+                    findNextBookingBoundary(bookings, LocalDateTime.now()), generation);
         }
         log.info("Read Item: {}.", item);
         return itemDto;
     }
 
+    /*
+    The view of an item also depends on its comments and, for the owner, on which bookings are the last and the next
+    one at the moment, so the tag is taken from the view itself rather than from the item version. Cached views make
+    this as cheap as a version lookup, and the tag never runs ahead of the body it is sent with.
+     */
+    @Override
+    public Tagged<ItemDto> getTaggedById(long userId, long itemId) {
+        ItemDto itemDto = getById(userId, itemId);
+        BookingInfoDto lastBooking = itemDto.getLastBooking();
+        BookingInfoDto nextBooking = itemDto.getNextBooking();
+        return Tagged.of(itemDto, Utils.eTag("item", itemDto.getId(), itemDto.getName(), itemDto.getDescription(),
+                itemDto.getAvailable(), itemDto.getRequestId(), itemDto.getCommentsCount(),
+                lastBooking == null ? null : lastBooking.getId(), nextBooking == null ? null : nextBooking.getId()));
+    }
+
+    @Override
+    public MultiGetDto<ItemDto> getByIds(long userId, List<Long> itemIds) {
+        List<Long> distinctIds = Utils.getDistinctIds(itemIds);
+        List<Item> readItems = itemRepository.findAllById(distinctIds);
+        List<Long> foundIds = readItems.stream().map(Item::getId).collect(Collectors.toList());
+        List<Long> ownedIds = readItems.stream()
+                .filter(item -> Objects.equals(item.getOwnerId(), userId))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentDto>> itemComments = findRecentComments(foundIds);
+        Map<Long, Long> commentCounts = countComments(foundIds);
+        Map<Long, BookingInfo> itemBookings = ownedIds.isEmpty() ? Map.of()
+                : findLastAndNextBooking(bookingRepository.findAllByItemIdIn(ownedIds), ownedIds);
+        Map<Long, ItemDto> itemDtos = readItems.stream()
+                .collect(Collectors.toMap(Item::getId, item -> {
+                    BookingInfo bookingInfo = itemBookings.getOrDefault(item.getId(), new BookingInfo());
+                    return ItemMapper.toItemDto(item, bookingInfo.getLastBooking(), bookingInfo.getNextBooking(),
+                            itemComments.getOrDefault(item.getId(), List.of()),
+                            commentCounts.getOrDefault(item.getId(), 0L));
+                }));
+        log.info("Read {} of {} requested Items.", itemDtos.size(), distinctIds.size());
+        return MultiGetDto.of(distinctIds, itemDtos);
+    }
+
     @Override
     public List<ItemDto> getByUser(long userId, Integer from, Optional<Integer> size) {
         PageRequest pageRequest = Utils.getPageRequest(from, size);
         List<Item> readItems = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageRequest);
         List<Long> itemIds = readItems.stream().map(Item::getId).collect(Collectors.toList());
         List<Booking> bookings = bookingRepository.findAllByItemIdIn(itemIds);
-        List<Comment> comments = commentRepository.findAllByItemIdIn(itemIds);
-        Map<Long, List<CommentDto>> itemComments = new HashMap<>();
-        for (Comment comment : comments) {
-            Long itemId = comment.getItemId();
-            CommentDto commentDto = CommentMapper.toCommentDto(comment);
-            if (itemComments.containsKey(itemId)) {
-                itemComments.get(itemId).add(commentDto);
-            } else {
-                itemComments.put(itemId, List.of(commentDto));
-            }
-        }
+        Map<Long, List<CommentDto>> itemComments = findRecentComments(itemIds);
+        Map<Long, Long> commentCounts = countComments(itemIds);
         Map<Long, BookingInfo> itemBookings = findLastAndNextBooking(bookings, itemIds);
         log.info("Read Items: {}.", readItems);
         return readItems.stream()
@@ -113,11 +171,30 @@ public class ItemServiceImpl implements ItemService {
                     Booking lastBooking = itemBookings.get(item.getId()).getLastBooking();
                     Booking nextBooking = itemBookings.get(item.getId()).getNextBooking();
                     List<CommentDto> commentDtos = itemComments.get(item.getId());
-                    return ItemMapper.toItemDto(item, lastBooking, nextBooking, commentDtos);
+                    return ItemMapper.toItemDto(item, lastBooking, nextBooking, commentDtos,
+                            commentCounts.getOrDefault(item.getId(), 0L));
                 })
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CommentPageDto getComments(long itemId, String cursor, Optional<Integer> size) {
+        itemRepository.findById(itemId).orElseThrow();
+        PageRequest pageRequest = Utils.getPageRequest(0, size);
+        List<Comment> comments;
+        if (cursor == null) {
+            comments = commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(itemId, pageRequest);
+        } else {
+            Comment after = decodeCursor(cursor);
+            comments = commentRepository.findAllByItemIdBefore(itemId, after.getCreated(), after.getId(), pageRequest);
+        }
+        String nextCursor = comments.size() < pageRequest.getPageSize() ? null
+                : encodeCursor(comments.get(comments.size() - 1));
+        log.info("Read {} Comments of Item with id = {}.", comments.size(), itemId);
+        return new CommentPageDto(comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()),
+                nextCursor);
+    }
+
     @Override
     public List<ItemDto> searchItems(String text, Integer from, Optional<Integer> size) {
         if (text.isBlank()) {
@@ -143,6 +220,9 @@ public class ItemServiceImpl implements ItemService {
                     userId, itemId));
         }
         Comment createdComment = commentRepository.save(CommentMapper.toComment(commentDto, user, itemId));
+        changeLog.record(ChangeType.COMMENT, createdComment.getId());
+        itemViewCache.invalidate(itemId);
+        readYourWritesTracker.recordWrite(userId);
         log.info("Added new Comment: {}.", createdComment);
         return CommentMapper.toCommentDto(createdComment);
     }
@@ -155,6 +235,57 @@ public class ItemServiceImpl implements ItemService {
         private Booking nextBooking;
     }
 
+    private Map<Long, List<CommentDto>> findRecentComments(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findRecentByItemIdIn(itemIds, RECENT_COMMENTS_LIMIT).stream()
+                .collect(Collectors.groupingBy(Comment::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+    }
+
+    private Map<Long, Long> countComments(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.countByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(CommentRepository.CommentCount::getItemId,
+                        CommentRepository.CommentCount::getCount));
+    }
+
+    private static String encodeCursor(Comment comment) {
+        String cursor = comment.getCreated() + CURSOR_SEPARATOR + comment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Comment decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR);
+            if (parts.length != 2) {
+                throw new ValidationFailException("Invalid cursor: " + cursor);
+            }
+            Comment comment = new Comment();
+            comment.setCreated(LocalDateTime.parse(parts[0]));
+            comment.setId(Long.parseLong(parts[1]));
+            return comment;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationFailException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static LocalDateTime findNextBookingBoundary(List<Booking> bookings, LocalDateTime now) {
+        LocalDateTime boundary = null;
+        for (Booking booking : bookings) {
+            for (LocalDateTime moment : List.of(booking.getStartDate(), booking.getEndDate())) {
+                if (moment.isAfter(now) && (boundary == null || moment.isBefore(boundary))) {
+                    boundary = moment;
+                }
+            }
+        }
+        return boundary;
+    }
+
     private Map<Long, BookingInfo> findLastAndNextBooking(List<Booking> bookings, List<Long> itemIds) {
         LocalDateTime now = LocalDateTime.now();
         Map<Long, BookingInfo> result = itemIds.stream().collect(Collectors.toMap(l -> l, l -> new BookingInfo()));
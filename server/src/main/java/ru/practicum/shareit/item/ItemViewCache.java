@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationListener;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded cache of assembled {@link ItemDto} views. The owner and non-owner variants of an item are cached
+ * separately: the owner variant carries last/next bookings and expires at the next booking boundary.
+ * Invalidation happens after the changing transaction commits, on this node and, through the
+ * {@link InvalidationBus}, on the others; a per-item generation stamp keeps a reader that loaded the old state
+ * before the commit from putting it back into the cache afterwards. Views read from a replica are not cached at all:
+ * the replica may not have applied the commit yet.
+ */
+@Slf4j
+@Component
+public class ItemViewCache {
+    public static final String REGION = "itemViews";
+    public static final String OWNER_VIEWS_REGION = "itemOwnerViews";
+    private static final int GENERATION_STRIPES = 1024;
+    private static final int BASE_WEIGHT = 128;
+
+    private final Cache<Key, CachedView> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final long ttlNanos;
+    private final InvalidationBus invalidationBus;
+
+    public ItemViewCache(MeterRegistry meterRegistry, InvalidationBus invalidationBus,
+                         @Value("${shareit.items.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                         @Value("${shareit.items.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, CachedView view) -> view.weight)
+                .expireAfter(new Expiry<Key, CachedView>() {
+                    @Override
+                    public long expireAfterCreate(Key key, CachedView view, long currentTime) {
+                        return view.expireAfterNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, CachedView view, long currentTime, long currentDuration) {
+                        return view.expireAfterNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, CachedView view, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemViews");
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(REGION, new InvalidationListener() {
+            @Override
+            public void evict(long itemId) {
+                generations.incrementAndGet(stripe(itemId));
+                cache.invalidate(new Key(itemId, false));
+                cache.invalidate(new Key(itemId, true));
+                log.debug("Invalidated cached views of Item with id = {}.", itemId);
+            }
+
+            @Override
+            public void evictAll() {
+                invalidateAll();
+            }
+        });
+        invalidationBus.subscribe(OWNER_VIEWS_REGION, new InvalidationListener() {
+            @Override
+            public void evict(long itemId) {
+                generations.incrementAndGet(stripe(itemId));
+                cache.invalidate(new Key(itemId, true));
+                log.debug("Invalidated cached owner view of Item with id = {}.", itemId);
+            }
+
+            @Override
+            public void evictAll() {
+                invalidateAll();
+            }
+        });
+    }
+
+    public long generation(long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public Optional<ItemDto> get(long itemId, long userId) {
+        CachedView publicView = cache.getIfPresent(new Key(itemId, false));
+        if (publicView == null) {
+            return Optional.empty();
+        }
+        if (!Objects.equals(publicView.ownerId, userId)) {
+            return Optional.of(publicView.item);
+        }
+        return Optional.ofNullable(cache.getIfPresent(new Key(itemId, true))).map(view -> view.item);
+    }
+
+    public void put(long itemId, Long ownerId, boolean ownerView, ItemDto item, LocalDateTime validUntil,
+                    long generation) {
+        if (ReplicaRoutingDataSource.isCurrentTransactionOnReplica()) {
+            return;
+        }
+        long expireAfterNanos = ttlNanos;
+        if (validUntil != null) {
+            expireAfterNanos = Math.min(ttlNanos, Duration.between(LocalDateTime.now(), validUntil).toNanos());
+        }
+        if (expireAfterNanos <= 0) {
+            return;
+        }
+        Key key = new Key(itemId, ownerView);
+        cache.put(key, new CachedView(ownerId, item, weigh(item), expireAfterNanos));
+        if (generation(itemId) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidate(long itemId) {
+        invalidationBus.publish(REGION, itemId);
+    }
+
+    public void invalidateOwnerView(long itemId) {
+        invalidationBus.publish(OWNER_VIEWS_REGION, itemId);
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+        log.debug("Invalidated all cached Item views.");
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) GENERATION_STRIPES);
+    }
+
+    private static int weigh(ItemDto item) {
+        long weight = BASE_WEIGHT + length(item.getName()) + length(item.getDescription());
+        if (item.getComments() != null) {
+            for (CommentDto comment : item.getComments()) {
+                weight += BASE_WEIGHT + length(comment.getText()) + length(comment.getAuthorName());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private static class Key {
+        private final long itemId;
+        private final boolean ownerView;
+
+        private Key(long itemId, boolean ownerView) {
+            this.itemId = itemId;
+            this.ownerView = ownerView;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return itemId == key.itemId && ownerView == key.ownerView;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, ownerView);
+        }
+    }
+
+    private static class CachedView {
+        private final Long ownerId;
+        private final ItemDto item;
+        private final int weight;
+        private final long expireAfterNanos;
+
+        private CachedView(Long ownerId, ItemDto item, int weight, long expireAfterNanos) {
+            this.ownerId = ownerId;
+            this.item = item;
+            this.weight = weight;
+            this.expireAfterNanos = expireAfterNanos;
+        }
+    }
+}
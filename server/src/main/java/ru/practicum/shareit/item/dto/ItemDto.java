@@ -26,4 +26,5 @@ public class ItemDto {
     private BookingInfoDto nextBooking;
     private List<CommentDto> comments;
     private Long requestId;
+    private Long commentsCount;
 }
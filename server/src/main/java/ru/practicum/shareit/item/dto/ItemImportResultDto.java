@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class ItemImportResultDto {
+    private long imported;
+    private long rejected;
+    private List<ItemImportErrorDto> errors;
+}
@@ -2,18 +2,23 @@ package ru.practicum.shareit.item.model;
 
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Objects;
 
 @Entity
 @Table(name = "ITEMS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Setter
 @Getter
 @ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class Item {
+    public static final String QUERY_CACHE_REGION = "item-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
@@ -28,6 +33,18 @@ public class Item {
     private Long ownerId;
     @Column(name = "request_id")
     private Long requestId;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public Item(Long id, String name, String description, Boolean available, Long ownerId, Long requestId) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.requestId = requestId;
+    }
 
     @Override
     public boolean equals(Object o) {
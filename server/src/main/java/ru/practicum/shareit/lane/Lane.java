@@ -0,0 +1,19 @@
+package ru.practicum.shareit.lane;
+
+/**
+ * Kinds of requests the server keeps apart, so that one kind can't take the threads and connections of another.
+ */
+public enum Lane {
+    /**
+     * Requests that change something: bookings, approvals, items, comments, requests.
+     */
+    WRITE,
+    /**
+     * Reads of single entities and of the lists of the user.
+     */
+    READ,
+    /**
+     * Reads that scan many rows: search of items, all bookings of an owner, requests of other users.
+     */
+    SCAN
+}
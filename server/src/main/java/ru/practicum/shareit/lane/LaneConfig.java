@@ -0,0 +1,24 @@
+package ru.practicum.shareit.lane;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/*
+Lanes run after load shedding: a request shed for saturation doesn't take a place in the queue of its lane. The task
+decorator is wired in DataSourceConfig, together with the one of read-your-writes.
+ */
+@Configuration
+@EnableConfigurationProperties(LaneProperties.class)
+public class LaneConfig {
+    @Bean
+    @ConditionalOnProperty(name = "shareit.lanes.enabled", matchIfMissing = true)
+    public FilterRegistrationBean<LaneFilter> laneFilter(Lanes lanes) {
+        FilterRegistrationBean<LaneFilter> registration = new FilterRegistrationBean<>(new LaneFilter(lanes));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 110);
+        return registration;
+    }
+}
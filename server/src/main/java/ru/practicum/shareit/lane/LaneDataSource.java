@@ -0,0 +1,102 @@
+package ru.practicum.shareit.lane;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Takes a connection of the lane of the current request before taking one of the pool it wraps and gives it back
+ * when the connection is closed. It wraps each pool on its own, the primary or a replica, so that the lane's limit
+ * of that pool applies. Connections taken outside of a request (startup, background jobs) are not limited.
+ */
+public class LaneDataSource extends DelegatingDataSource {
+    private final boolean replica;
+
+    public LaneDataSource(DataSource targetDataSource, boolean replica) {
+        super(targetDataSource);
+        this.replica = replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        LaneGate gate = Lanes.currentGate();
+        if (gate == null) {
+            return super.getConnection();
+        }
+        gate.acquireConnection(replica);
+        try {
+            return limited(super.getConnection(), gate, replica);
+        } catch (SQLException | RuntimeException e) {
+            gate.releaseConnection(replica);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        LaneGate gate = Lanes.currentGate();
+        if (gate == null) {
+            return super.getConnection(username, password);
+        }
+        gate.acquireConnection(replica);
+        try {
+            return limited(super.getConnection(username, password), gate, replica);
+        } catch (SQLException | RuntimeException e) {
+            gate.releaseConnection(replica);
+            throw e;
+        }
+    }
+
+    private static Connection limited(Connection connection, LaneGate gate, boolean replica) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new LimitedConnection(connection, gate, replica));
+    }
+
+    private static class LimitedConnection implements InvocationHandler {
+        private final Connection target;
+        private final LaneGate gate;
+        private final boolean replica;
+        private boolean closed;
+
+        private LimitedConnection(Connection target, LaneGate gate, boolean replica) {
+            this.target = target;
+            this.gate = gate;
+            this.replica = replica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            target.close();
+                        } finally {
+                            gate.releaseConnection(replica);
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.lane;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Runs every request in its lane: writes in {@link Lane#WRITE}; the scans of item search, of all bookings of an
+ * owner, of the requests of other users, exports and dashboards in {@link Lane#SCAN}; all other reads in
+ * {@link Lane#READ}. A request rejected by its lane gets 503.
+ */
+public class LaneFilter extends OncePerRequestFilter {
+    private static final Set<String> SCAN_PATHS = Set.of("/items/search", "/requests/all");
+    private static final String OWNER_BOOKINGS_PATH = "/bookings/owner";
+    private static final String EXPORT_SUFFIX = "/export";
+    private static final String DASHBOARD_PREFIX = "/dashboard";
+
+    private final Lanes lanes;
+
+    public LaneFilter(Lanes lanes) {
+        this.lanes = lanes;
+    }
+
+    static Lane classify(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return Lane.WRITE;
+        }
+        String path = request.getServletPath();
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (SCAN_PATHS.contains(path) || path.endsWith(EXPORT_SUFFIX) || path.startsWith(DASHBOARD_PREFIX)) {
+            return Lane.SCAN;
+        }
+        if (OWNER_BOOKINGS_PATH.equals(path)) {
+            String state = request.getParameter("state");
+            return state == null || state.equalsIgnoreCase("ALL") ? Lane.SCAN : Lane.READ;
+        }
+        return Lane.READ;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LaneGate gate = lanes.gate(classify(request));
+        long started;
+        try {
+            started = gate.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            started = -1;
+        }
+        if (started < 0) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(String.format("{\"error\":\"Lane %s is full, retry later.\"}",
+                    gate.getLane()));
+            return;
+        }
+        request.setAttribute(Lanes.GATE_ATTRIBUTE, gate);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            request.removeAttribute(Lanes.GATE_ATTRIBUTE);
+            gate.exit(started);
+        }
+    }
+}
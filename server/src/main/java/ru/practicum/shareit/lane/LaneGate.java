@@ -0,0 +1,146 @@
+package ru.practicum.shareit.lane;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor of one lane on the request threads: at most {@code workers} requests of the lane run at once,
+ * at most {@code queueCapacity} more wait for their turn in arrival order, each no longer than the queue timeout.
+ * Requests that find the queue full or time out in it are rejected. The gate also caps the pooled connections the
+ * lane holds, separately of the primary and of the replicas; a connection is waited for no longer than the queue
+ * timeout either.
+ */
+public class LaneGate {
+    private final Lane lane;
+    private final int workers;
+    private final int queueCapacity;
+    private final long queueTimeoutNanos;
+    private final int maxConnections;
+    private final int maxReplicaConnections;
+    private final Semaphore running;
+    private final Semaphore connections;
+    private final Semaphore replicaConnections;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer queueWait;
+    private final Timer latency;
+    private final Counter rejections;
+
+    LaneGate(Lane lane, LaneProperties.Settings settings, int poolSize, int replicas, MeterRegistry meterRegistry) {
+        this.lane = lane;
+        this.workers = settings.getWorkers();
+        this.queueCapacity = settings.getQueueCapacity();
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getQueueTimeoutMillis());
+        this.maxConnections = connectionLimit(poolSize, settings.getConnectionShare());
+        this.maxReplicaConnections = replicas == 0 ? 0
+                : connectionLimit(poolSize * replicas, settings.getConnectionShare());
+        this.running = new Semaphore(workers, true);
+        this.connections = new Semaphore(maxConnections, true);
+        this.replicaConnections = new Semaphore(maxReplicaConnections, true);
+        String tag = lane.name().toLowerCase();
+        Gauge.builder("shareit.lanes.active", running, semaphore -> workers - semaphore.availablePermits())
+                .description("Requests of the lane running")
+                .tag("lane", tag)
+                .register(meterRegistry);
+        Gauge.builder("shareit.lanes.queue-depth", queued, AtomicInteger::get)
+                .description("Requests of the lane waiting for their turn")
+                .tag("lane", tag)
+                .register(meterRegistry);
+        Gauge.builder("shareit.lanes.connections", connections,
+                        semaphore -> maxConnections - semaphore.availablePermits())
+                .description("Pooled connections held by requests of the lane")
+                .tag("lane", tag)
+                .tag("pool", "primary")
+                .register(meterRegistry);
+        Gauge.builder("shareit.lanes.connections", replicaConnections,
+                        semaphore -> maxReplicaConnections - semaphore.availablePermits())
+                .description("Pooled connections held by requests of the lane")
+                .tag("lane", tag)
+                .tag("pool", "replicas")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("shareit.lanes.queue-wait")
+                .description("Time requests of the lane waited for their turn")
+                .tag("lane", tag)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.latency = Timer.builder("shareit.lanes.latency")
+                .description("Time requests of the lane ran, without the wait for their turn")
+                .tag("lane", tag)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("shareit.lanes.rejections")
+                .description("Requests of the lane rejected because the queue was full or the wait too long")
+                .tag("lane", tag)
+                .register(meterRegistry);
+    }
+
+    public Lane getLane() {
+        return lane;
+    }
+
+    static int connectionLimit(int pooledConnections, double share) {
+        return Math.max(1, (int) Math.round(pooledConnections * share));
+    }
+
+    int getMaxConnections(boolean replica) {
+        return replica ? maxReplicaConnections : maxConnections;
+    }
+
+    /**
+     * Waits for the turn of the request. Returns the start time to pass to {@link #exit}, or {@code -1} if the
+     * request is rejected.
+     */
+    long enter() throws InterruptedException {
+        long start = System.nanoTime();
+        if (!running.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                rejections.increment();
+                return -1;
+            }
+            boolean acquired;
+            try {
+                acquired = running.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!acquired) {
+                queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                rejections.increment();
+                return -1;
+            }
+        }
+        long started = System.nanoTime();
+        queueWait.record(started - start, TimeUnit.NANOSECONDS);
+        return started;
+    }
+
+    void exit(long started) {
+        running.release();
+        latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    void acquireConnection(boolean replica) throws SQLTransientConnectionException {
+        boolean acquired;
+        try {
+            acquired = (replica ? replicaConnections : connections).tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException(String.format("All %d %s connections of lane %s are in use.",
+                    getMaxConnections(replica), replica ? "replica" : "primary", lane));
+        }
+    }
+
+    void releaseConnection(boolean replica) {
+        (replica ? replicaConnections : connections).release();
+    }
+}
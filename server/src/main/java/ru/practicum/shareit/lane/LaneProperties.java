@@ -0,0 +1,49 @@
+package ru.practicum.shareit.lane;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits of every lane. A connection share is the part of the pooled connections the lane may hold at once; the
+ * shares of the other lanes being below one reserves the rest of the pool for the lane with the full share.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("shareit.lanes")
+public class LaneProperties {
+    private boolean enabled = true;
+    private Settings write = new Settings(40, 100, 2000, 1.0);
+    private Settings read = new Settings(40, 60, 1000, 0.5);
+    private Settings scan = new Settings(8, 16, 1000, 0.2);
+
+    @Getter
+    @Setter
+    public static class Settings {
+        private int workers;
+        private int queueCapacity;
+        private long queueTimeoutMillis;
+        private double connectionShare;
+
+        public Settings() {
+        }
+
+        public Settings(int workers, int queueCapacity, long queueTimeoutMillis, double connectionShare) {
+            this.workers = workers;
+            this.queueCapacity = queueCapacity;
+            this.queueTimeoutMillis = queueTimeoutMillis;
+            this.connectionShare = connectionShare;
+        }
+    }
+
+    Settings get(Lane lane) {
+        switch (lane) {
+            case WRITE:
+                return write;
+            case READ:
+                return read;
+            default:
+                return scan;
+        }
+    }
+}
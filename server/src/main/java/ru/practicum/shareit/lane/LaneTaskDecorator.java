@@ -0,0 +1,26 @@
+package ru.practicum.shareit.lane;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs a task with the lane gate of the request that submitted it, so that the connections it takes on another
+ * thread (dashboard sections, streamed exports) count toward the lane of the request. Tasks submitted outside of a
+ * request run without a gate, as before.
+ */
+public class LaneTaskDecorator implements TaskDecorator {
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        LaneGate gate = Lanes.currentGate();
+        if (gate == null) {
+            return runnable;
+        }
+        return () -> {
+            LaneGate previous = Lanes.bindTaskGate(gate);
+            try {
+                runnable.run();
+            } finally {
+                Lanes.bindTaskGate(previous);
+            }
+        };
+    }
+}
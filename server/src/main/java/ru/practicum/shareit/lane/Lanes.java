@@ -0,0 +1,75 @@
+package ru.practicum.shareit.lane;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The gates of all lanes. The gate of the current request is kept in a request attribute, so that the data source
+ * finds it without depending on this bean; tasks the request hands to an executor run with the same gate, see
+ * {@link LaneTaskDecorator}. A lane's connection share is taken of each pool it uses: of the primary, and of the
+ * replicas together, which have pools of the same size. Reads and scans together must leave part of the primary to
+ * writes, which can't go anywhere else.
+ */
+@Component
+public class Lanes {
+    static final String GATE_ATTRIBUTE = LaneGate.class.getName();
+
+    private static final ThreadLocal<LaneGate> TASK_GATE = new ThreadLocal<>();
+
+    private final Map<Lane, LaneGate> gates = new EnumMap<>(Lane.class);
+
+    public Lanes(LaneProperties properties,
+                 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                 @Value("${shareit.datasource.replica-urls:}") List<String> replicaUrls,
+                 MeterRegistry meterRegistry) {
+        int replicas = (int) replicaUrls.stream().filter(url -> !url.isBlank()).count();
+        int readConnections = LaneGate.connectionLimit(poolSize, properties.get(Lane.READ).getConnectionShare())
+                + LaneGate.connectionLimit(poolSize, properties.get(Lane.SCAN).getConnectionShare());
+        if (readConnections >= poolSize) {
+            throw new IllegalStateException(String.format("Reads and scans may take %d of the %d primary connections; "
+                    + "lower their connection shares to leave some to writes.", readConnections, poolSize));
+        }
+        for (Lane lane : Lane.values()) {
+            gates.put(lane, new LaneGate(lane, properties.get(lane), poolSize, replicas, meterRegistry));
+        }
+    }
+
+    public LaneGate gate(Lane lane) {
+        return gates.get(lane);
+    }
+
+    @Nullable
+    static LaneGate currentGate() {
+        LaneGate taskGate = TASK_GATE.get();
+        if (taskGate != null) {
+            return taskGate;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (LaneGate) attributes.getAttribute(GATE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Makes {@code gate} the gate of the current thread and returns the one it had.
+     */
+    @Nullable
+    static LaneGate bindTaskGate(@Nullable LaneGate gate) {
+        LaneGate previous = TASK_GATE.get();
+        if (gate == null) {
+            TASK_GATE.remove();
+        } else {
+            TASK_GATE.set(gate);
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group: a server that sheds single-entity reads is out of service, so that balancers send
+ * requests to other instances until it has caught up.
+ */
+@Component("load")
+public class LoadHealthIndicator extends AbstractHealthIndicator {
+    private final LoadMonitor loadMonitor;
+
+    public LoadHealthIndicator(LoadMonitor loadMonitor) {
+        this.loadMonitor = loadMonitor;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        int level = loadMonitor.level();
+        builder.status(level >= 2 ? "OUT_OF_SERVICE" : "UP")
+                .withDetail("level", level)
+                .withDetail("poolWaitMillis", loadMonitor.poolWaitNanos() / 1e6);
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tells how saturated the server is from the requests in flight and the connection pools: the time requests waited
+ * for a pooled connection lately, the threads waiting now and connection timeouts. The pool figures are sampled from
+ * the Hikari meters at most every {@code shareit.load.sample-millis}; the wait time is a moving average that decays
+ * while no connection is taken, so an idle server is never reported as saturated. A connection timeout raises it to
+ * twice the {@link Priority#NORMAL} threshold at least.
+ *
+ * <p>Saturation levels: 0 is normal; 1 sheds {@link Priority#LOW} requests; 2 also sheds {@link Priority#NORMAL}
+ * ones and reports the server as not ready; 3 means too many requests in flight and sheds everything.
+ */
+@Component
+public class LoadMonitor implements MeterBinder {
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double SAMPLE_WEIGHT = 0.5;
+
+    private final long lowPriorityWaitNanos;
+    private final long normalPriorityWaitNanos;
+    private final int maxInFlight;
+    private final long sampleNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+    private volatile MeterRegistry meterRegistry;
+    private volatile int poolLevel;
+    private long sampledAt = System.nanoTime();
+    private long acquiredCount;
+    private double acquiredNanos;
+    private double timeoutCount;
+    private double poolWaitNanos;
+
+    public LoadMonitor(@Value("${shareit.load.low-priority-wait-millis:50}") long lowPriorityWaitMillis,
+                       @Value("${shareit.load.normal-priority-wait-millis:250}") long normalPriorityWaitMillis,
+                       @Value("${shareit.load.max-in-flight:180}") int maxInFlight,
+                       @Value("${shareit.load.sample-millis:100}") long sampleMillis) {
+        this.lowPriorityWaitNanos = TimeUnit.MILLISECONDS.toNanos(lowPriorityWaitMillis);
+        this.normalPriorityWaitNanos = TimeUnit.MILLISECONDS.toNanos(normalPriorityWaitMillis);
+        this.maxInFlight = maxInFlight;
+        this.sampleNanos = TimeUnit.MILLISECONDS.toNanos(sampleMillis);
+    }
+
+    /*
+    The monitor reads the pool meters instead of being a tracker of the pools itself: the meter registry is created
+    after the data sources, so it can't be a dependency of them.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.load.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests being handled by the server")
+                .register(registry);
+        Gauge.builder("shareit.load.pool-wait", this, monitor -> monitor.poolWaitNanos() / 1e6)
+                .description("Moving average of the time requests waited for a pooled connection, in milliseconds")
+                .register(registry);
+        Gauge.builder("shareit.load.level", this, LoadMonitor::level)
+                .description("Saturation level: 0 normal, 1 sheds lists, 2 sheds reads, 3 sheds everything")
+                .register(registry);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("shareit.load.shed")
+                    .description("Requests rejected because the server was saturated")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+        this.meterRegistry = registry;
+    }
+
+    public boolean tryEnter(Priority priority) {
+        int level = level(inFlight.incrementAndGet());
+        if (priority == Priority.HIGH ? level >= 3 : level > priority.ordinal()) {
+            inFlight.decrementAndGet();
+            Counter counter = shed.get(priority);
+            if (counter != null) {
+                counter.increment();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    public int level() {
+        return level(inFlight.get());
+    }
+
+    private int level(int requestsInFlight) {
+        if (requestsInFlight > maxInFlight) {
+            return 3;
+        }
+        long now = System.nanoTime();
+        if (now - sampledAt >= sampleNanos) {
+            sample(now);
+        }
+        return poolLevel;
+    }
+
+    synchronized double poolWaitNanos() {
+        return decayed(System.nanoTime());
+    }
+
+    private synchronized void sample(long now) {
+        if (now - sampledAt < sampleNanos || meterRegistry == null) {
+            return;
+        }
+        long count = 0;
+        double nanos = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            count += timer.count();
+            nanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        double timeouts = 0;
+        for (Counter counter : meterRegistry.find("hikaricp.connections.timeout").counters()) {
+            timeouts += counter.count();
+        }
+        double pendingPerConnection = 0;
+        for (Gauge pending : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            Gauge max = meterRegistry.find("hikaricp.connections.max").tags(pending.getId().getTags()).gauge();
+            double maxConnections = max != null ? Math.max(max.value(), 1) : 1;
+            pendingPerConnection = Math.max(pendingPerConnection, pending.value() / maxConnections);
+        }
+        double wait = decayed(now);
+        if (count > acquiredCount) {
+            double recentWait = (nanos - acquiredNanos) / (count - acquiredCount);
+            wait = wait * (1 - SAMPLE_WEIGHT) + recentWait * SAMPLE_WEIGHT;
+        }
+        if (timeouts > timeoutCount) {
+            wait = Math.max(wait, 2.0 * normalPriorityWaitNanos);
+        }
+        poolWaitNanos = wait;
+        acquiredCount = count;
+        acquiredNanos = nanos;
+        timeoutCount = timeouts;
+        sampledAt = now;
+        if (wait >= normalPriorityWaitNanos || pendingPerConnection >= 2) {
+            poolLevel = 2;
+        } else if (wait >= lowPriorityWaitNanos || pendingPerConnection >= 1) {
+            poolLevel = 1;
+        } else {
+            poolLevel = 0;
+        }
+    }
+
+    private double decayed(long now) {
+        return poolWaitNanos * Math.exp(-(now - sampledAt) / DECAY_NANOS);
+    }
+}
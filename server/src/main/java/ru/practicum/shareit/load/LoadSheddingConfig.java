@@ -0,0 +1,17 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoadSheddingConfig {
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(LoadMonitor loadMonitor) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(loadMonitor));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Rejects requests the saturated server should not start on, before they take a thread for long or wait for a
+ * connection. Writes are {@link Priority#HIGH}, reads of a single entity ({@code GET} of a path ending with an id) are
+ * {@link Priority#NORMAL}, all other reads (lists, searches, exports, streams) are {@link Priority#LOW}.
+ *
+ * <p>Shed reads are answered with 429: the server is busy, not failing, so the gateway must not count them toward
+ * ejecting the instance or opening the route's circuit. Shed writes are answered with 503, as they are only shed when
+ * the server cannot take any more requests at all. A request that goes on asynchronously (a streamed export) stays in
+ * flight until it completes. An event stream leaves the count as soon as its handler returns: it only holds an idle
+ * connection afterwards, and counting it would let a few open dashboards shed every other request.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private static final Pattern ENTITY_PATH = Pattern.compile(".*/\\d+/?");
+
+    private final LoadMonitor loadMonitor;
+
+    public LoadSheddingFilter(LoadMonitor loadMonitor) {
+        this.loadMonitor = loadMonitor;
+    }
+
+    static Priority classify(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return Priority.HIGH;
+        }
+        return ENTITY_PATH.matcher(request.getServletPath()).matches() ? Priority.NORMAL : Priority.LOW;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!loadMonitor.tryEnter(priority)) {
+            response.setStatus(priority == Priority.HIGH ? HttpStatus.SERVICE_UNAVAILABLE.value()
+                    : HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"error\":\"Server is overloaded, retry later.\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                request.getAsyncContext().addListener(new ExitOnComplete());
+            } else {
+                loadMonitor.exit();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private class ExitOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            loadMonitor.exit();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.load;
+
+/**
+ * How long a request is kept when the server is overloaded. Lists and searches are shed first, single-entity reads
+ * next, writes only when the server cannot take any more requests at all.
+ */
+public enum Priority {
+    LOW, NORMAL, HIGH
+}
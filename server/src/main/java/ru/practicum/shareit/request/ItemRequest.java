@@ -2,6 +2,8 @@ package ru.practicum.shareit.request;
 
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -9,12 +11,15 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "ITEM_REQUESTS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
-@AllArgsConstructor
 public class ItemRequest {
+    public static final String QUERY_CACHE_REGION = "request-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id", nullable = false)
@@ -25,6 +30,16 @@ public class ItemRequest {
     private LocalDateTime created = LocalDateTime.now();
     @Column(name = "creator_id", nullable = false)
     private Long creatorId;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public ItemRequest(Long id, String description, LocalDateTime created, Long creatorId) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+        this.creatorId = creatorId;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,8 +35,9 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @PathVariable("requestId") Long requestId) {
-        return itemRequestService.getById(userId, requestId);
+    public ResponseEntity<ItemRequestDto> getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @PathVariable("requestId") Long requestId) {
+        Tagged<ItemRequestDto> itemRequest = itemRequestService.getTaggedById(userId, requestId);
+        return ResponseEntity.ok().eTag(itemRequest.getETag()).body(itemRequest.getBody());
     }
 }
@@ -2,7 +2,6 @@ package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.User;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,10 +33,10 @@ public class ItemRequestMapper {
                 .collect(Collectors.toList());
     }
 
-    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto, User creator) {
+    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto, Long creatorId) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription(itemRequestDto.getDescription());
-        itemRequest.setCreatorId(creator.getId());
+        itemRequest.setCreatorId(creatorId);
         return itemRequest;
     }
 
@@ -2,10 +2,17 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ItemRequest.QUERY_CACHE_REGION)})
     List<ItemRequest> findAllByCreatorIdOrderByCreatedDesc(Long creatorId);
 
     List<ItemRequest> findAllByCreatorIdNotOrderByCreatedDesc(Long creatorId, Pageable pageable);
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +14,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllRequests(Long userId, Integer from, Optional<Integer> size);
 
     ItemRequestDto getById(Long userId, Long requestId);
+
+    Tagged<ItemRequestDto> getTaggedById(Long userId, Long requestId);
 }
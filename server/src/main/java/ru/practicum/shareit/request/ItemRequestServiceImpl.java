@@ -6,14 +6,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserExistenceChecker;
+import ru.practicum.shareit.utils.Tagged;
+import ru.practicum.shareit.utils.Utils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -25,23 +31,27 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
     private final ItemRepository itemRepository;
+    private final ChangeLog changeLog;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Override
     @Transactional
     public ItemRequestDto add(ItemRequestDto itemRequestDto, Long userId) {
-        User creator = userRepository.findById(userId).orElseThrow();
-        ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, creator);
+        userExistenceChecker.requireExists(userId);
+        ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, userId);
         ItemRequest createdItemRequest = itemRequestRepository.save(itemRequest);
+        changeLog.record(ChangeType.REQUEST, createdItemRequest.getId());
+        readYourWritesTracker.recordWrite(userId);
         log.info("Created new ItemRequest: {}.", createdItemRequest);
         return ItemRequestMapper.toItemRequestDto(createdItemRequest, Collections.emptyList());
     }
 
     @Override
     public List<ItemRequestDto> getAllOwnRequests(Long id) {
-        User owner = userRepository.findById(id).orElseThrow();
-        List<ItemRequest> foundItemRequests = itemRequestRepository.findAllByCreatorIdOrderByCreatedDesc(owner.getId());
+        userExistenceChecker.requireExists(id);
+        List<ItemRequest> foundItemRequests = itemRequestRepository.findAllByCreatorIdOrderByCreatedDesc(id);
         List<ItemShortDto> itemsAnsweredToRequests = getRequestsAnsweredItems(foundItemRequests);
         log.info("Found ItemRequests: {}.", foundItemRequests);
         return ItemRequestMapper.toItemRequestDtos(foundItemRequests, itemsAnsweredToRequests);
@@ -56,10 +66,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         if (from < 0 || pageSize < 0) {
             throw new ValidationFailException("Parameters 'from' and 'size' must be positive!");
         }
-        User user = userRepository.findById(userId).orElseThrow();
+        userExistenceChecker.requireExists(userId);
         Pageable itemRequestsPageRequest = PageRequest.of(from, pageSize);
         List<ItemRequest> foundItemRequests = itemRequestRepository
-                .findAllByCreatorIdNotOrderByCreatedDesc(user.getId(), itemRequestsPageRequest);
+                .findAllByCreatorIdNotOrderByCreatedDesc(userId, itemRequestsPageRequest);
         List<ItemShortDto> itemsAnsweredToRequests = getRequestsAnsweredItems(foundItemRequests);
         log.info("Found ItemRequests: {}.", foundItemRequests);
         return ItemRequestMapper.toItemRequestDtos(foundItemRequests, itemsAnsweredToRequests);
@@ -67,11 +77,26 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getById(Long userId, Long requestId) {
-        userRepository.findById(userId).orElseThrow();
+        return getTaggedById(userId, requestId).getBody();
+    }
+
+    @Override
+    public Tagged<ItemRequestDto> getTaggedById(Long userId, Long requestId) {
+        userExistenceChecker.requireExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow();
-        List<ItemShortDto> itemsAnsweredToRequest = getRequestsAnsweredItems(Collections.singletonList(itemRequest));
+        List<Item> answeredItems = itemRepository.findAllByRequestIdIn(List.of(requestId));
+        List<Object> versions = new ArrayList<>();
+        versions.add(itemRequest.getId());
+        versions.add(itemRequest.getVersion());
+        for (Item item : answeredItems) {
+            versions.add(item.getId());
+            versions.add(item.getVersion());
+        }
         log.info("Found ItemRequest: {}.", itemRequest);
-        return ItemRequestMapper.toItemRequestDto(itemRequest, itemsAnsweredToRequest);
+        return Tagged.of(ItemRequestMapper.toItemRequestDto(itemRequest, answeredItems.stream()
+                        .map(ItemMapper::toItemShortDto)
+                        .collect(Collectors.toList())),
+                Utils.eTag("request", versions.toArray()));
     }
 
     private List<ItemShortDto> getRequestsAnsweredItems(List<ItemRequest> foundItemRequests) {
@@ -2,6 +2,8 @@ package ru.practicum.shareit.user;
 
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.Objects;
@@ -11,8 +13,9 @@ import java.util.Objects;
 @Getter
 @ToString
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(name = "USERS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +25,15 @@ public class User {
     private String name;
     @Column(name = " email", nullable = false)
     private String email;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public User(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 
@@ -19,8 +22,9 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto read(@PathVariable long id) {
-        return userService.read(id);
+    public ResponseEntity<UserDto> read(@PathVariable long id) {
+        Tagged<UserDto> user = userService.readTagged(id);
+        return ResponseEntity.ok().eTag(user.getETag()).body(user.getBody());
     }
 
     @PatchMapping("/{id}")
@@ -37,4 +41,9 @@ public class UserController {
     public List<UserDto> readAll() {
         return userService.readAll();
     }
+
+    @GetMapping(params = "ids")
+    public MultiGetDto<UserDto> readAll(@RequestParam List<Long> ids) {
+        return userService.readAll(ids);
+    }
 }
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.invalidation.InvalidationListener;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers "does this user exist?" for services that only need to validate the {@code X-Sharer-User-Id} header.
+ * Confirmed ids are remembered in a bitset indexed by id (one bit per user, ids above the capacity are always
+ * checked against the database), so repeated requests of the same user cost no query. A deletion clears the bit
+ * on every node after its transaction commits; a generation counter keeps a reader that confirmed the id before
+ * the commit from setting the bit again afterwards. Only the primary confirms an id for good: a lagging replica may
+ * still report a user deleted before, and the generation counter can't tell that apart.
+ */
+@Slf4j
+@Component
+public class UserExistenceChecker {
+    public static final String REGION = "userIds";
+
+    private final UserRepository userRepository;
+    private final AtomicLongArray knownIds;
+    private final long capacity;
+    private final AtomicLong generation = new AtomicLong();
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserExistenceChecker(UserRepository userRepository, InvalidationBus invalidationBus,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.users.existence.capacity:1048576}") long capacity) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.knownIds = new AtomicLongArray((int) ((capacity + Long.SIZE - 1) / Long.SIZE));
+        this.capacity = capacity;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(REGION, new InvalidationListener() {
+            @Override
+            public void evict(long userId) {
+                generation.incrementAndGet();
+                if (isCacheable(userId)) {
+                    clear(userId);
+                }
+                log.debug("Forgot existence of User with id = {}.", userId);
+            }
+
+            @Override
+            public void evictAll() {
+                generation.incrementAndGet();
+                for (int i = 0; i < knownIds.length(); i++) {
+                    knownIds.set(i, 0);
+                }
+                log.debug("Forgot existence of all Users.");
+            }
+        });
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NoSuchElementException(String.format("User with id = %s not found!", userId));
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (isKnown(userId)) {
+            return true;
+        }
+        long observedGeneration = generation.get();
+        // The lookup and the replica check share a transaction: the mark of a replica read ends with it.
+        return Boolean.TRUE.equals(readOnlyTransaction.execute(status -> {
+            boolean exists = userRepository.existsById(userId);
+            if (exists && isCacheable(userId) && !ReplicaRoutingDataSource.isCurrentTransactionOnReplica()) {
+                set(userId);
+                if (generation.get() != observedGeneration) {
+                    clear(userId);
+                }
+            }
+            return exists;
+        }));
+    }
+
+    public void forget(long userId) {
+        invalidationBus.publish(REGION, userId);
+    }
+
+    private boolean isCacheable(long userId) {
+        return userId >= 0 && userId < capacity;
+    }
+
+    private boolean isKnown(long userId) {
+        return isCacheable(userId) && (knownIds.get(word(userId)) & mask(userId)) != 0;
+    }
+
+    private void set(long userId) {
+        knownIds.accumulateAndGet(word(userId), mask(userId), (word, mask) -> word | mask);
+    }
+
+    private void clear(long userId) {
+        knownIds.accumulateAndGet(word(userId), ~mask(userId), (word, mask) -> word & mask);
+    }
+
+    private static int word(long userId) {
+        return (int) (userId / Long.SIZE);
+    }
+
+    private static long mask(long userId) {
+        return 1L << (userId % Long.SIZE);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.util.List;
 
@@ -9,9 +11,13 @@ public interface UserService {
 
     UserDto read(long id);
 
+    Tagged<UserDto> readTagged(long id);
+
     UserDto update(long id, UserDto userDto);
 
     UserDto delete(long id);
 
     List<UserDto> readAll();
+
+    MultiGetDto<UserDto> readAll(List<Long> ids);
 }
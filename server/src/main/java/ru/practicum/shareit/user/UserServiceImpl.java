@@ -4,10 +4,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
+import ru.practicum.shareit.utils.Utils;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -20,6 +25,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Transactional
     @Override
@@ -27,15 +34,21 @@ public class UserServiceImpl implements UserService {
         User user = UserMapper.toUser(userDto);
         validateEmail(user.getEmail());
         User createdUser = userRepository.save(user);
+        readYourWritesTracker.recordWrite(createdUser.getId());
         log.info("Created new User: {}.", createdUser);
         return UserMapper.toDto(createdUser);
     }
 
     @Override
     public UserDto read(long id) {
+        return readTagged(id).getBody();
+    }
+
+    @Override
+    public Tagged<UserDto> readTagged(long id) {
         User readUser = userRepository.findById(id).orElseThrow();
         log.info("Read User: {}.", readUser);
-        return UserMapper.toDto(readUser);
+        return Tagged.of(UserMapper.toDto(readUser), Utils.eTag("user", readUser.getId(), readUser.getVersion()));
     }
 
     @Transactional
@@ -55,6 +68,7 @@ public class UserServiceImpl implements UserService {
             }
         });
         User updatedUser = userRepository.save(userToUpdate);
+        readYourWritesTracker.recordWrite(id);
         log.info("Updated User: {}.", updatedUser);
         return UserMapper.toDto(updatedUser);
     }
@@ -64,6 +78,8 @@ public class UserServiceImpl implements UserService {
     public UserDto delete(long id) {
         User deletedUser = userRepository.findById(id).orElseThrow();
         userRepository.deleteById(id);
+        userExistenceChecker.forget(id);
+        readYourWritesTracker.recordWrite(id);
         log.info("Deleted User: {}.", deletedUser);
         return UserMapper.toDto(deletedUser);
     }
@@ -77,6 +93,15 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public MultiGetDto<UserDto> readAll(List<Long> ids) {
+        List<Long> distinctIds = Utils.getDistinctIds(ids);
+        Map<Long, UserDto> readUsers = userRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(User::getId, UserMapper::toDto));
+        log.info("Read {} of {} requested Users.", readUsers.size(), distinctIds.size());
+        return MultiGetDto.of(distinctIds, readUsers);
+    }
+
     private void validateEmail(String email) {
         Pattern pattern = Pattern.compile("^[A-Z0-9._%+-]+@[A-Z0-9.-]+\\.[A-Z]{2,6}$", Pattern.CASE_INSENSITIVE);
         Matcher matcher = pattern.matcher(email);
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@AllArgsConstructor
+@Getter
+public class MultiGetDto<T> {
+    private List<T> found;
+    private List<Long> missing;
+
+    public static <T> MultiGetDto<T> of(List<Long> ids, Map<Long, T> foundById) {
+        return new MultiGetDto<>(
+                ids.stream().filter(foundById::containsKey).map(foundById::get).collect(Collectors.toList()),
+                ids.stream().filter(id -> !foundById.containsKey(id)).collect(Collectors.toList()));
+    }
+}
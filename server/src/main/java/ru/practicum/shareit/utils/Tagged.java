@@ -0,0 +1,11 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor(staticName = "of")
+@Getter
+public class Tagged<T> {
+    private final T body;
+    private final String eTag;
+}
@@ -3,10 +3,14 @@ package ru.practicum.shareit.utils;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class Utils {
     public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_IDS_PER_REQUEST = 100;
 
     public static PageRequest getPageRequest(Integer from, Optional<Integer> size) {
         if (from < 0 || (size.isPresent() && size.get() < 0)) {
@@ -18,4 +22,31 @@ public class Utils {
             return PageRequest.of(from, size.get());
         }
     }
+
+    public static List<Long> getDistinctIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_IDS_PER_REQUEST) {
+            throw new ValidationFailException(String.format("Parameter 'ids' must contain from 1 to %s ids!",
+                    MAX_IDS_PER_REQUEST));
+        }
+        if (ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new ValidationFailException("Parameter 'ids' must contain only positive ids!");
+        }
+        return ids.stream().distinct().collect(Collectors.toList());
+    }
+
+    /*
+    Strong entity tag of a single resource, built from whatever identifies its state: entity versions for plain
+    entities, the assembled view for views that also depend on other entities. The parts are hashed with 64-bit FNV-1a,
+    so a tag is cheap to compute and short, and two states collide with negligible probability.
+     */
+    public static String eTag(String type, Object... parts) {
+        long hash = 0xcbf29ce484222325L;
+        for (Object part : parts) {
+            for (byte b : (String.valueOf(part) + '|').getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+        }
+        return type + "-" + Long.toHexString(hash);
+    }
 }
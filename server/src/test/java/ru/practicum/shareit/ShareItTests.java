@@ -3,22 +3,62 @@ package ru.practicum.shareit;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.*;
 
+import com.zaxxer.hikari.HikariDataSource;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeService;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.dashboard.DashboardService;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportService;
+import ru.practicum.shareit.invalidation.InvalidationTransport;
+import ru.practicum.shareit.item.ItemImportService;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -28,6 +68,46 @@ class ShareItTests {
     private final ItemService itemService;
     private final BookingService bookingService;
     private final ItemRequestService itemRequestService;
+    private final ChangeService changeService;
+    private final ExportService exportService;
+    private final ItemImportService itemImportService;
+    private final DashboardService dashboardService;
+    private final ChangeLog changeLog;
+    private final PlatformTransactionManager transactionManager;
+    private final ItemViewCache itemViewCache;
+    private final ItemRepository itemRepository;
+    private final InvalidationTransport invalidationTransport;
+    private final EntityManagerFactory entityManagerFactory;
+    private final HikariDataSource primaryDataSource;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    /*
+    Stands in for replication: the replica is dropped and rebuilt from a script of the primary. Until the next copy,
+    whatever a test writes is only on the primary.
+     */
+    @BeforeEach
+    public void replicate() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection connection = primaryDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SCRIPT")) {
+            while (resultSet.next()) {
+                script.add(resultSet.getString(1));
+            }
+        }
+        for (DataSource replica : replicaRoutingDataSource.getResolvedDataSources().values()) {
+            if (replica == replicaRoutingDataSource.getResolvedDefaultDataSource()) {
+                continue;
+            }
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
 
     @Test
     public void testCreateAndThenDeleteUser() {
@@ -43,6 +123,37 @@ class ShareItTests {
         assertThat(deletedUserDto, is(expectedUSerDto));
     }
 
+    @Test
+    public void testGetItemById_WhenReadFromReplica_ThenNotCached() {
+        itemService.getById(2L, 3L);
+
+        assertThat(itemViewCache.get(3L, 2L), is(Optional.empty()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> itemService.getById(2L, 3L));
+
+        assertThat(itemViewCache.get(3L, 2L).get().getName(), is("Гаечный ключ"));
+    }
+
+    @Test
+    public void testRemoteEntityChange_ThenOnlyQueriesOverItsTablesEvicted() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> itemRepository.findAllByOwnerIdOrderByIdAsc(1L));
+        long hits = statistics.getQueryCacheHitCount();
+
+        invalidationTransport.publish(String.join("|", "hibernate.entity:" + User.class.getName(), "1",
+                Long.toString(System.currentTimeMillis()), "other-node"));
+        transaction.executeWithoutResult(status -> itemRepository.findAllByOwnerIdOrderByIdAsc(1L));
+
+        assertThat(statistics.getQueryCacheHitCount(), is(hits + 1));
+
+        invalidationTransport.publish(String.join("|", "hibernate.entity:" + Item.class.getName(), "2",
+                Long.toString(System.currentTimeMillis() + 1), "other-node"));
+        transaction.executeWithoutResult(status -> itemRepository.findAllByOwnerIdOrderByIdAsc(1L));
+
+        assertThat(statistics.getQueryCacheHitCount(), is(hits + 1));
+    }
+
     @Test
     public void testItemServiceGetByUser() {
         List<ItemDto> foundItems = itemService.getByUser(1L, 0, Optional.of(10));
@@ -122,4 +233,126 @@ class ShareItTests {
         assertThat(foundRequests.get(2).getId(), is(1L));
         assertThat(foundRequests.get(3).getId(), is(4L));
     }
+
+    @Test
+    public void testOwnerDashboard_WhenReadByWriter_ThenSectionsReadPrimary() {
+        ItemDto createdItem = itemService.add(7L, new ItemDto(null, "Стамеска", "Плоская, 12 мм", true, null, null,
+                null, null, null));
+
+        // The sections are read on the dashboard pool; they go to the primary only if they read as the writer.
+        assertThat(dashboardService.getOwnerDashboard(7L, Optional.empty()).getItems().stream()
+                .anyMatch(item -> item.getId().equals(createdItem.getId())), is(false));
+        OwnerDashboardDto dashboard = asUser(7L, () -> dashboardService.getOwnerDashboard(7L, Optional.empty()));
+        assertThat(dashboard.getItems().stream()
+                .anyMatch(item -> item.getId().equals(createdItem.getId())), is(true));
+    }
+
+    @Test
+    public void testChangeFeedContainsCreatedItem() {
+        Long cursor = changeService.getChanges(10L, 0L, Optional.of(1000)).getCursor();
+        ItemDto createdItem = itemService.add(10L, new ItemDto(null, "Стремянка", "Три ступени", true, null, null,
+                null, null, null));
+
+        // Read by someone else, the feed comes from the replica, which hasn't got the item yet; the writer reads the
+        // primary.
+        assertThat(changeService.getChanges(10L, cursor, Optional.empty()).getChanges().size(), is(0));
+        ChangeFeedDto changeFeed = asUser(10L, () -> changeService.getChanges(10L, cursor, Optional.empty()));
+
+        assertThat(changeFeed.getChanges().size(), is(1));
+        assertThat(changeFeed.getChanges().get(0).getType(), is(ChangeType.ITEM));
+        assertThat(changeFeed.getChanges().get(0).getId(), is(createdItem.getId()));
+        assertThat(changeFeed.getCursor(), is(changeFeed.getChanges().get(0).getSeq()));
+    }
+
+    @Test
+    public void testChangeFeedWhenEarlierTransactionCommitsLater() throws SQLException {
+        Long cursor = changeService.getChanges(1L, 0L, Optional.of(1000)).getCursor();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        ChangeFeedDto firstChangeFeed = transaction.execute(status -> {
+            changeLog.record(ChangeType.ITEM, 1L);
+            newTransaction.executeWithoutResult(newStatus -> changeLog.record(ChangeType.ITEM, 2L));
+            return newTransaction.execute(newStatus -> changeService.getChanges(1L, cursor, Optional.empty()));
+        });
+        replicate();
+        ChangeFeedDto secondChangeFeed = changeService.getChanges(1L, firstChangeFeed.getCursor(), Optional.empty());
+
+        assertThat(firstChangeFeed.getChanges().size(), is(1));
+        assertThat(firstChangeFeed.getChanges().get(0).getId(), is(2L));
+        assertThat(secondChangeFeed.getChanges().size(), is(1));
+        assertThat(secondChangeFeed.getChanges().get(0).getId(), is(1L));
+        assertThat(secondChangeFeed.getCursor() > firstChangeFeed.getCursor(), is(true));
+    }
+
+    @Test
+    public void testExportOwnerBookingsAsCsv() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportService.exportOwnerBookings(1L, ExportFormat.CSV).writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, is(6));
+        assertThat(lines[0], is("id,start,end,status,itemId,itemName,bookerId"));
+        assertThat(lines[1], startsWith("3,"));
+        assertThat(lines[1], endsWith(",WAITING,3,Гаечный ключ,10"));
+    }
+
+    @Test
+    public void testExportOwnerItemsAsNdjson() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportService.exportOwnerItems(2L, ExportFormat.NDJSON).writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(lines[0], is("{\"id\":4,\"name\":\"Фонарь\",\"description\":\"Компактный фонарь\","
+                + "\"available\":true,\"requestId\":null}"));
+    }
+
+    @Test
+    public void testImportItemsAsNdjson() {
+        String body = "{\"name\":\"Пила\",\"description\":\"Ножовка\",\"available\":true,\"requestId\":4}\n"
+                + "{\"name\":\"\",\"description\":\"Без имени\",\"available\":true}\n"
+                + "\n"
+                + "not json\n"
+                + "{\"name\":\"Лопата\",\"description\":\"Штыковая\",\"available\":false}\n";
+
+        Long cursor = changeService.getChanges(8L, 0L, Optional.of(1000)).getCursor();
+        // Caches the empty list of the owner's items; the import must invalidate it. Reads of the replica aren't
+        // cached, so the list is read in a read-write transaction, which goes to the primary.
+        Assertions.assertThrows(ValidationFailException.class, () -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> bookingService.getAllOwnerBookings(8L, "ALL", 0, Optional.empty())));
+
+        ItemImportResultDto result = itemImportService.importItems(8L, ExportFormat.NDJSON,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported(), is(2L));
+        assertThat(result.getRejected(), is(2L));
+        assertThat(result.getErrors().get(0).getLine(), is(2L));
+        assertThat(result.getErrors().get(1).getLine(), is(4L));
+        assertThat(itemService.getByUser(8L, 0, Optional.empty()).size(), is(0));
+        List<ItemDto> items = asUser(8L, () -> itemService.getByUser(8L, 0, Optional.empty()));
+        assertThat(items.size(), is(2));
+        assertThat(items.get(0).getName(), is("Пила"));
+        assertThat(items.get(0).getRequestId(), is(4L));
+        assertThat(items.get(1).getAvailable(), is(false));
+        assertThat(asUser(8L, () -> bookingService.getAllOwnerBookings(8L, "ALL", 0, Optional.empty())).size(), is(0));
+        ChangeFeedDto changeFeed = asUser(8L, () -> changeService.getChanges(8L, cursor, Optional.empty()));
+        assertThat(changeFeed.getChanges().size(), is(2));
+        assertThat(changeFeed.getChanges().get(0).getId(), is(items.get(0).getId()));
+        assertThat(changeFeed.getChanges().get(1).getId(), is(items.get(1).getId()));
+    }
+
+    private static <T> T asUser(long userId, Supplier<T> read) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return read.get();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 }
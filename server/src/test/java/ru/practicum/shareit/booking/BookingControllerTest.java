@@ -6,8 +6,11 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -15,11 +18,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 import ru.practicum.shareit.exceptions.ForbiddenAccessException;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.item.model.Item;
@@ -60,6 +68,41 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
     }
 
+    @Test
+    public void testStream_ThenOK() throws Exception {
+        when(bookingService.subscribe(anyLong()))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    public void testStream_WhenUserNotFound_ThenNotFound() throws Exception {
+        when(bookingService.subscribe(anyLong()))
+                .thenThrow(NoSuchElementException.class);
+
+        mvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 100)
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testStream_WhenTooManyStreams_ThenTooManyRequests() throws Exception {
+        when(bookingService.subscribe(anyLong()))
+                .thenThrow(new TooManyRequestsException("", 15L));
+
+        mvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "15"));
+    }
+
     @Test
     public void testAdd_WhenIdIsNull_ThenBadRequest() throws Exception {
         AddBookingDto badDto = new AddBookingDto(null, LocalDateTime.now().minusDays(5),
@@ -175,19 +218,34 @@ public class BookingControllerTest {
 
     @Test
     public void testGetById_ThenOK() throws Exception {
-        when(bookingService.getById(anyLong(), anyLong()))
-                .thenReturn(bookingDto);
+        when(bookingService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(bookingDto, "booking-1"));
 
         mvc.perform(get("/bookings/1")
                         .header("X-Sharer-User-Id", 1)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class));
+                .andExpect(jsonPath("$.id", is(bookingDto.getId()), Long.class))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"booking-1\""));
+    }
+
+    @Test
+    public void testGetById_WhenNotModified_ThenNotModified() throws Exception {
+        when(bookingService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(bookingDto, "booking-1"));
+
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"booking-1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"booking-1\""))
+                .andExpect(content().string(""));
     }
 
     @Test
     public void testGetById_WhenNotFound_ThenNotFound() throws Exception {
-        when(bookingService.getById(anyLong(), anyLong()))
+        when(bookingService.getTaggedById(anyLong(), anyLong()))
                 .thenThrow(new NoSuchElementException());
 
         mvc.perform(get("/bookings/1")
@@ -285,4 +343,18 @@ public class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    public void testGetByIds_ThenOK() throws Exception {
+        when(bookingService.getByIds(anyLong(), anyList()))
+                .thenReturn(new MultiGetDto<>(List.of(bookingDto), List.of(9L)));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("ids", "1,9")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$.missing[0]", is(9L), Long.class));
+    }
 }
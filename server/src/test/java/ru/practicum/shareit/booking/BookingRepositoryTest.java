@@ -10,6 +10,8 @@ import org.springframework.data.domain.PageRequest;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.*;
@@ -141,4 +143,13 @@ public class BookingRepositoryTest {
         assertThat(bookings.size(), is(equalTo(1)));
         assertThat(bookings.get(0).getId(), is(equalTo(1L)));
     }
+
+    @Test
+    public void testStreamAllByItemOwnerId() {
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(1L)) {
+            List<Long> bookingIds = bookings.map(Booking::getId).collect(Collectors.toList());
+
+            assertThat(bookingIds, is(equalTo(List.of(3L, 4L, 5L, 2L, 1L))));
+        }
+    }
 }
@@ -12,19 +12,28 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.dto.AddBookingDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.BookingFailException;
 import ru.practicum.shareit.exceptions.ForbiddenAccessException;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemViewCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -35,13 +44,28 @@ public class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingStreamRegistry bookingStreamRegistry;
+    @Mock
+    private ChangeLog changeLog;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
 
     private BookingService bookingService;
 
     @BeforeEach
     public void setBookingService() {
-        this.bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        this.bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                bookingStreamRegistry, changeLog, itemViewCache,
+                new UserExistenceChecker(userRepository, invalidationBus, transactionManager, 1024),
+                readYourWritesTracker);
     }
 
     @Test
@@ -168,6 +192,10 @@ public class BookingServiceTest {
 
         Mockito.verify(bookingRepository, Mockito.times(1)).save(new Booking(null, addBookingDto.getStart(),
                 addBookingDto.getEnd(), 1L, 1L, BookingStatus.WAITING));
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidateOwnerView(1L);
+        Mockito.verify(readYourWritesTracker, Mockito.times(1)).recordWrite(1L, 2L);
+        Mockito.verify(bookingStreamRegistry, Mockito.times(1)).publish(Mockito.any(BookingDto.class),
+                Mockito.eq(2L));
     }
 
     @Test
@@ -283,6 +311,34 @@ public class BookingServiceTest {
         bookingService.consider(2L, 1L, true);
         booking.setStatus(BookingStatus.APPROVED);
         Mockito.verify(bookingRepository, Mockito.times(1)).save(booking);
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidateOwnerView(1L);
+        Mockito.verify(readYourWritesTracker, Mockito.times(1)).recordWrite(2L, 1L);
+        Mockito.verify(bookingStreamRegistry, Mockito.times(1)).publish(Mockito.any(BookingDto.class),
+                Mockito.eq(2L));
+    }
+
+    @Test
+    public void testSubscribe_WhenUserNotExists_ThenThrow() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
+
+        NoSuchElementException e = Assertions.assertThrows(
+                NoSuchElementException.class,
+                () -> bookingService.subscribe(1L)
+        );
+
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
+        Mockito.verify(bookingStreamRegistry, Mockito.never()).subscribe(Mockito.anyLong());
+    }
+
+    @Test
+    public void testSubscribe_StandardBehaviour_ThenOK() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
+
+        bookingService.subscribe(1L);
+
+        Mockito.verify(bookingStreamRegistry, Mockito.times(1)).subscribe(1L);
     }
 
     @Test
@@ -370,6 +426,30 @@ public class BookingServiceTest {
         assertThat(bookingDto.getItem(), is(equalTo(item)));
     }
 
+    @Test
+    public void testGetTaggedById_WhenEmbeddedItemChanges_ThenETagChanges() {
+        Booking booking = new Booking(1L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), 1L, 1L, BookingStatus.APPROVED);
+        booking.setVersion(0L);
+        Mockito.when(bookingRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(booking));
+        Item item = new Item(1L, "item", "good item", true, 2L, null);
+        item.setVersion(0L);
+        Mockito.when(itemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(item));
+        User booker = new User(1L, "John", "john@ya.ru");
+        booker.setVersion(0L);
+        Mockito.when(userRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(booker));
+
+        Tagged<BookingDto> first = bookingService.getTaggedById(1L, 1L);
+        item.setVersion(1L);
+        Tagged<BookingDto> changed = bookingService.getTaggedById(1L, 1L);
+
+        assertThat(first.getBody().getId(), is(equalTo(1L)));
+        assertThat(changed.getETag(), is(not(equalTo(first.getETag()))));
+    }
+
     @Test
     public void testGetAllBookerBookings_WhenUserNotExists_ThenThrow() {
         Mockito.when(userRepository.findById(Mockito.anyLong()))
@@ -475,21 +555,21 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
                 () -> bookingService.getAllOwnerBookings(1L, "ALL", 0, Optional.of(10))
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testGetAllOwnerBookings_WhenNoItemsFound_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.emptyList());
 
@@ -503,8 +583,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenBadState_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
 
@@ -518,8 +598,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenStateAll_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
         Mockito.when(bookingRepository.findAllByItemIdInOrderByStartDateDesc(Mockito.anyList(),
@@ -533,8 +613,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenStateCurrent_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
         Mockito.when(bookingRepository.findAllByItemIdInAndStartDateBeforeAndEndDateAfterOrderByStartDateDesc(
@@ -551,8 +631,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenStatePast_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
         Mockito.when(bookingRepository.findAllByItemIdInAndEndDateBeforeAndStatusNotOrderByStartDateDesc(
@@ -569,8 +649,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenStateFuture_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
         Mockito.when(bookingRepository.findAllByItemIdInAndStartDateAfterOrderByStartDateDesc(
@@ -586,8 +666,8 @@ public class BookingServiceTest {
 
     @Test
     public void testGetAllOwnerBookings_WhenStateWaitingOrRejected_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerIdOrderByIdAsc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new Item(1L, "item", "good item", true, 1L, null)));
         Mockito.when(bookingRepository.findAllByItemIdInAndStatusOrderByStartDateDesc(Mockito.anyList(),
@@ -602,4 +682,25 @@ public class BookingServiceTest {
         Mockito.verify(bookingRepository, Mockito.times(1)).findAllByItemIdInAndStatusOrderByStartDateDesc(
                 Collections.singletonList(1L), BookingStatus.REJECTED, PageRequest.of(0, 10));
     }
+
+    @Test
+    public void testGetByIds_WhenNotBookerOrOwner_ThenMissing() {
+        Booking ownBooking = new Booking(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 1L, 3L,
+                BookingStatus.WAITING);
+        Booking foreignBooking = new Booking(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 2L,
+                4L, BookingStatus.WAITING);
+        Mockito.when(bookingRepository.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(ownBooking, foreignBooking));
+        Mockito.when(itemRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(new Item(1L, "item", "good item", true, 2L, null),
+                        new Item(2L, "other", "other item", true, 5L, null)));
+        Mockito.when(userRepository.findAllById(List.of(3L)))
+                .thenReturn(List.of(new User(3L, "John", "john@ya.ru")));
+
+        MultiGetDto<BookingDto> result = bookingService.getByIds(3L, List.of(2L, 1L));
+
+        assertThat(result.getFound().size(), is(1));
+        assertThat(result.getFound().get(0).getId(), is(1L));
+        assertThat(result.getMissing(), is(equalTo(List.of(2L))));
+    }
 }
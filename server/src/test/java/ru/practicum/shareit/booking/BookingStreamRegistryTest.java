@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exceptions.TooManyRequestsException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BookingStreamRegistryTest {
+    private SimpleMeterRegistry meterRegistry;
+    private BookingStreamRegistry bookingStreamRegistry;
+
+    @BeforeEach
+    public void setBookingStreamRegistry() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingStreamRegistry = new BookingStreamRegistry(meterRegistry, 60_000L, 2, 4, 60L);
+    }
+
+    @AfterEach
+    public void shutdownBookingStreamRegistry() {
+        bookingStreamRegistry.shutdown();
+    }
+
+    @Test
+    public void testSubscribe_ThenConnectionCounted() {
+        bookingStreamRegistry.subscribe(1L);
+        bookingStreamRegistry.subscribe(2L);
+
+        assertThat(bookingStreamRegistry.getConnectionCount(), is(2));
+        assertThat(meterRegistry.get("shareit.bookings.stream.connections").gauge().value(), is(2.0));
+    }
+
+    @Test
+    public void testSubscribe_WhenTooManyConnections_ThenThrow() {
+        bookingStreamRegistry.subscribe(1L);
+        bookingStreamRegistry.subscribe(1L);
+
+        TooManyRequestsException e = Assertions.assertThrows(
+                TooManyRequestsException.class,
+                () -> bookingStreamRegistry.subscribe(1L)
+        );
+
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 has too many open booking streams!")));
+        assertThat(e.getRetryAfterSeconds(), is(60L));
+    }
+
+    @Test
+    public void testSubscribe_WhenConcurrent_ThenLimitKept() throws InterruptedException {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    bookingStreamRegistry.subscribe(1L);
+                } catch (TooManyRequestsException e) {
+                    rejected.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(bookingStreamRegistry.getConnectionCount(), is(2));
+        assertThat(rejected.get(), is(threads - 2));
+    }
+
+    @Test
+    public void testPublish_ThenEventCounted() {
+        SseEmitter emitter = bookingStreamRegistry.subscribe(1L);
+        BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                BookingStatus.APPROVED, new User(1L, "John", "john@ya.ru"),
+                new Item(1L, "дрель", "хорошо сверлит", true, 2L, null));
+
+        bookingStreamRegistry.publish(bookingDto, 2L);
+
+        assertThat(emitter, is(notNullValue()));
+        assertThat(meterRegistry.get("shareit.bookings.stream.events").counter().count(), is(1.0));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.change;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.change.dto.ChangeDto;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+
+import java.util.List;
+import java.util.Optional;
+
+@WebMvcTest(controllers = ChangeController.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ChangeControllerTest {
+    private final MockMvc mvc;
+    @MockBean
+    private ChangeService changeService;
+
+    @Test
+    public void testGetChanges_ThenOK() throws Exception {
+        when(changeService.getChanges(1L, 10L, Optional.of(5)))
+                .thenReturn(new ChangeFeedDto(List.of(new ChangeDto(11L, ChangeType.ITEM, 3L, null)), 11L));
+
+        mvc.perform(get("/changes?since=10&size=5")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cursor", is(11)))
+                .andExpect(jsonPath("$.changes[0].type", is("ITEM")))
+                .andExpect(jsonPath("$.changes[0].id", is(3)));
+    }
+
+    @Test
+    public void testGetChanges_WhenSinceIsNegative_ThenBadRequest() throws Exception {
+        when(changeService.getChanges(anyLong(), anyLong(), any()))
+                .thenThrow(new ValidationFailException("Parameter 'since' must be positive!"));
+
+        mvc.perform(get("/changes?since=-1")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
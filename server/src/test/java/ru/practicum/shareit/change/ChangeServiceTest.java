@@ -0,0 +1,130 @@
+package ru.practicum.shareit.change;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.change.dto.ChangeFeedDto;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeServiceTest {
+    @Mock
+    private ChangeRepository changeRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    private ChangeService changeService;
+
+    @BeforeEach
+    public void setChangeService() {
+        this.changeService = new ChangeServiceImpl(changeRepository, userRepository, itemRepository,
+                bookingRepository, commentRepository, itemRequestRepository,
+                new UserExistenceChecker(userRepository, invalidationBus, transactionManager, 1024));
+    }
+
+    @Test
+    public void testGetChanges_WhenSinceIsNegative_ThenThrow() {
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> changeService.getChanges(1L, -1L, Optional.empty())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Parameter 'since' must be positive!")));
+    }
+
+    @Test
+    public void testGetChanges_WhenUserNotExists_ThenThrow() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
+
+        NoSuchElementException e = Assertions.assertThrows(
+                NoSuchElementException.class,
+                () -> changeService.getChanges(1L, 0L, Optional.empty())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
+    }
+
+    @Test
+    public void testGetChanges_WhenNoChanges_ThenReturnSameCursor() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
+        Mockito.when(changeRepository.findAllBySeqGreaterThanOrderBySeqAsc(5L, PageRequest.of(0, 20)))
+                .thenReturn(Collections.emptyList());
+
+        ChangeFeedDto changeFeed = changeService.getChanges(1L, 5L, Optional.empty());
+
+        assertThat(changeFeed.getChanges(), is(equalTo(Collections.emptyList())));
+        assertThat(changeFeed.getCursor(), is(5L));
+    }
+
+    @Test
+    public void testGetChanges_ThenReturnLatestChangePerEntityAndHideForeignBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Item item = new Item(1L, "item", "good item", true, 2L, null);
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
+        Mockito.when(changeRepository.findAllBySeqGreaterThanOrderBySeqAsc(0L, PageRequest.of(0, 10)))
+                .thenReturn(List.of(new Change(1L, ChangeType.ITEM, 1L, now),
+                        new Change(2L, ChangeType.BOOKING, 1L, now),
+                        new Change(3L, ChangeType.BOOKING, 2L, now),
+                        new Change(4L, ChangeType.ITEM, 1L, now)));
+        Mockito.when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(item));
+        Mockito.when(bookingRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(new Booking(1L, now, now.plusDays(1), 1L, 1L, BookingStatus.WAITING),
+                        new Booking(2L, now, now.plusDays(1), 1L, 3L, BookingStatus.WAITING)));
+        Mockito.when(itemRepository.findAllById(Collections.singleton(1L)))
+                .thenReturn(List.of(item));
+        Mockito.when(userRepository.findAllById(Collections.singleton(1L)))
+                .thenReturn(List.of(new User(1L, "John", "john@ya.ru")));
+
+        ChangeFeedDto changeFeed = changeService.getChanges(1L, 0L, Optional.of(10));
+
+        assertThat(changeFeed.getCursor(), is(4L));
+        assertThat(changeFeed.getChanges().size(), is(2));
+        assertThat(changeFeed.getChanges().get(0).getSeq(), is(2L));
+        assertThat(changeFeed.getChanges().get(0).getType(), is(ChangeType.BOOKING));
+        assertThat(changeFeed.getChanges().get(1).getSeq(), is(4L));
+        assertThat(((ItemShortDto) changeFeed.getChanges().get(1).getData()).getName(), is(item.getName()));
+    }
+}
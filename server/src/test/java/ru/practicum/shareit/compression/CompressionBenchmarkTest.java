@@ -0,0 +1,115 @@
+package ru.practicum.shareit.compression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression ratio and CPU cost of gzip on booking lists as the server sends them, for list sizes around the
+ * compression threshold and above. Runs with {@code mvn -P benchmark test -pl server}; the results are printed.
+ */
+@Tag("benchmark")
+public class CompressionBenchmarkTest {
+    private static final int[] LIST_SIZES = {1, 5, 20, 100, 1000};
+    private static final int[] LEVELS = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION};
+    private static final long MEASURE_NANOS = 300_000_000L;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    public void benchmarkGzip() throws IOException {
+        System.out.printf("%8s %6s %10s %10s %7s %12s %12s%n", "bookings", "level", "raw B", "gzip B", "ratio",
+                "compress us", "inflate us");
+        for (int size : LIST_SIZES) {
+            byte[] raw = mapper.writeValueAsBytes(bookings(size));
+            for (int level : LEVELS) {
+                byte[] compressed = gzip(raw, level);
+                double compressMicros = measure(() -> gzip(raw, level));
+                double inflateMicros = measure(() -> gunzip(compressed));
+                double ratio = (double) compressed.length / raw.length;
+                System.out.printf("%8d %6d %10d %10d %7.3f %12.1f %12.1f%n", size, level, raw.length,
+                        compressed.length, ratio, compressMicros, inflateMicros);
+                if (size >= 20) {
+                    Assertions.assertTrue(ratio < 0.5);
+                }
+            }
+        }
+    }
+
+    private static List<BookingDto> bookings(int size) {
+        List<BookingDto> bookings = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 10, 0);
+        for (long i = 1; i <= size; i++) {
+            User booker = new User(i % 50 + 1, "Пользователь " + (i % 50 + 1), "user" + (i % 50 + 1) + "@mail.ru");
+            Item item = new Item(i % 200 + 1, "Дрель " + (i % 200 + 1), "Аккумуляторная дрель, два аккумулятора "
+                    + "и набор сверл по дереву и металлу", true, i % 20 + 1, i % 3 == 0 ? i : null);
+            bookings.add(new BookingDto(i, start.plusHours(i), start.plusHours(i + 24),
+                    BookingStatus.values()[(int) (i % BookingStatus.values().length)], booker, item));
+        }
+        return bookings;
+    }
+
+    private static byte[] gzip(byte[] raw, int level) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 32);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(compressed, level)) {
+            gzip.write(raw);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private static double measure(IoSupplier action) throws IOException {
+        long sink = 0;
+        for (int i = 0; i < 200; i++) {
+            sink += action.get().length;
+        }
+        int runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += action.get().length;
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MEASURE_NANOS);
+        Assertions.assertTrue(sink > 0);
+        return elapsed / 1e3 / runs;
+    }
+
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+        private LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoSupplier {
+        byte[] get() throws IOException;
+    }
+}
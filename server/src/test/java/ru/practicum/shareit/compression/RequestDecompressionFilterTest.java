@@ -0,0 +1,187 @@
+package ru.practicum.shareit.compression;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exceptions.ErrorHandler;
+import ru.practicum.shareit.exceptions.MalformedRequestBodyException;
+import ru.practicum.shareit.exceptions.RequestBodyTooLargeException;
+
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+public class RequestDecompressionFilterTest {
+    private static final String BODY = "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}";
+
+    private final RequestDecompressionFilter filter = new RequestDecompressionFilter(1024);
+
+    @Test
+    public void testDoFilter_WhenGzip_ThenBodyDecompressed() throws ServletException, IOException {
+        MockHttpServletRequest request = request(gzip(BODY));
+        request.addHeader("Content-Encoding", "gzip");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertEquals(BODY, StreamUtils.copyToString(chain.getRequest().getInputStream(),
+                StandardCharsets.UTF_8));
+        Assertions.assertEquals(-1, chain.getRequest().getContentLength());
+        Assertions.assertNull(((HttpServletRequest) chain.getRequest())
+                .getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void testDoFilter_WhenNotEncoded_ThenPassedAsIs() throws ServletException, IOException {
+        MockHttpServletRequest request = request(BODY.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    public void testDoFilter_WhenUnsupportedEncoding_ThenUnsupportedMediaType() throws ServletException, IOException {
+        MockHttpServletRequest request = request(BODY.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("Content-Encoding", "br");
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        Assertions.assertNull(chain.getRequest());
+        Assertions.assertEquals(415, response.getStatus());
+    }
+
+    @Test
+    public void testDoFilter_WhenDecompressedTooLarge_ThenReadFails() throws ServletException, IOException {
+        MockHttpServletRequest request = request(gzip("x".repeat(2048)));
+        request.addHeader("Content-Encoding", "gzip");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertThrows(RequestBodyTooLargeException.class, () -> StreamUtils.copyToByteArray(chain
+                .getRequest().getInputStream()));
+    }
+
+    @Test
+    public void testDoFilter_WhenNotGzip_ThenReadFailsAsMalformed() throws ServletException, IOException {
+        MockHttpServletRequest request = request(BODY.getBytes(StandardCharsets.UTF_8));
+        request.addHeader("Content-Encoding", "gzip");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertThrows(MalformedRequestBodyException.class, () -> chain.getRequest().getInputStream());
+    }
+
+    @Test
+    public void testDoFilter_WhenReadAsText_ThenReaderDecompressed() throws ServletException, IOException {
+        MockHttpServletRequest request = request(gzip(BODY));
+        request.addHeader("Content-Encoding", "gzip");
+        request.setCharacterEncoding("UTF-8");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertEquals(BODY, FileCopyUtils.copyToString(chain.getRequest().getReader()));
+        Assertions.assertThrows(IllegalStateException.class, () -> chain.getRequest().getInputStream());
+    }
+
+    @Test
+    public void testDoFilter_WhenReadListenerSet_ThenIllegalState() throws ServletException, IOException {
+        MockHttpServletRequest request = request(gzip(BODY));
+        request.addHeader("Content-Encoding", "gzip");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        ServletInputStream inputStream = chain.getRequest().getInputStream();
+        Assertions.assertThrows(IllegalStateException.class, () -> inputStream.setReadListener(null));
+    }
+
+    @Test
+    public void testPost_WhenNotGzip_ThenBadRequest() throws Exception {
+        mvc().perform(post("/echo")
+                        .header("Content-Encoding", "gzip")
+                        .content(BODY)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mvc().perform(post("/echo/raw")
+                        .header("Content-Encoding", "gzip")
+                        .content(Arrays.copyOf(gzip(BODY), 20))
+                        .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testPost_WhenDecompressedTooLarge_ThenPayloadTooLarge() throws Exception {
+        mvc().perform(post("/echo")
+                        .header("Content-Encoding", "gzip")
+                        .content(gzip("{\"name\":\"" + "x".repeat(2048) + "\"}"))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPayloadTooLarge());
+        mvc().perform(post("/echo/raw")
+                        .header("Content-Encoding", "gzip")
+                        .content(gzip("x".repeat(2048)))
+                        .contentType(MediaType.TEXT_PLAIN))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    private MockMvc mvc() {
+        return MockMvcBuilders.standaloneSetup(new EchoController())
+                .setControllerAdvice(new ErrorHandler())
+                .addFilters(filter)
+                .build();
+    }
+
+    @RestController
+    private static class EchoController {
+        @PostMapping("/echo")
+        public Map<String, Object> echo(@RequestBody Map<String, Object> body) {
+            return body;
+        }
+
+        @PostMapping("/echo/raw")
+        public int echoRaw(InputStream inputStream) throws IOException {
+            return StreamUtils.copyToByteArray(inputStream).length;
+        }
+    }
+
+    private static MockHttpServletRequest request(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
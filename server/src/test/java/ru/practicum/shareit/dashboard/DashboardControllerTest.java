@@ -0,0 +1,58 @@
+package ru.practicum.shareit.dashboard;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+@WebMvcTest(controllers = DashboardController.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class DashboardControllerTest {
+    private final MockMvc mvc;
+    @MockBean
+    private DashboardService dashboardService;
+
+    @Test
+    public void testGetOwnerDashboard_ThenOK() throws Exception {
+        when(dashboardService.getOwnerDashboard(1L, Optional.empty()))
+                .thenReturn(new OwnerDashboardDto(List.of(new ItemDto(1L, "Дрель", "На радость соседям", true, null,
+                        null, null, null, null)), Collections.emptyList(), Collections.emptyList(),
+                        Collections.emptyList(), Map.of("total", 3L)));
+
+        mvc.perform(get("/dashboard/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.timingsMillis.total", is(3)));
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenUserNotFound_ThenNotFound() throws Exception {
+        when(dashboardService.getOwnerDashboard(anyLong(), any()))
+                .thenThrow(NoSuchElementException.class);
+
+        mvc.perform(get("/dashboard/owner")
+                        .header("X-Sharer-User-Id", 100)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.dashboard;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.dashboard.dto.OwnerDashboardDto;
+import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+
+@ExtendWith(MockitoExtension.class)
+public class DashboardServiceTest {
+    @Mock
+    private UserService userService;
+    @Mock
+    private ItemService itemService;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private ItemRequestService itemRequestService;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    public void setDashboardService() {
+        this.dashboardService = new DashboardServiceImpl(userService, itemService, bookingService, itemRequestService,
+                Executors.newFixedThreadPool(2));
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenUserNotExists_ThenThrow() {
+        Mockito.when(userService.read(1L))
+                .thenThrow(new NoSuchElementException("No value present"));
+
+        NoSuchElementException e = Assertions.assertThrows(
+                NoSuchElementException.class,
+                () -> dashboardService.getOwnerDashboard(1L, Optional.empty())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("No value present")));
+        Mockito.verifyNoInteractions(itemService, bookingService, itemRequestService);
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenNegativeSize_ThenThrow() {
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> dashboardService.getOwnerDashboard(1L, Optional.of(-1))
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Parameter 'size' must be positive!")));
+        Mockito.verifyNoInteractions(userService, itemService, bookingService, itemRequestService);
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenZeroSize_ThenThrow() {
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> dashboardService.getOwnerDashboard(1L, Optional.of(0))
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Parameter 'size' must be positive!")));
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenOwnerHasNoItems_ThenEmptyBookings() {
+        Mockito.when(itemService.getByUser(1L, 0, Optional.of(20)))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(itemRequestService.getAllRequests(1L, 0, Optional.of(20)))
+                .thenReturn(Collections.emptyList());
+
+        OwnerDashboardDto dashboard = dashboardService.getOwnerDashboard(1L, Optional.empty());
+
+        assertThat(dashboard.getWaitingBookings(), is(equalTo(Collections.emptyList())));
+        assertThat(dashboard.getCurrentBookings(), is(equalTo(Collections.emptyList())));
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    public void testGetOwnerDashboard_WhenBookingsSectionFails_ThenThrow() {
+        Mockito.when(itemService.getByUser(1L, 0, Optional.of(20)))
+                .thenReturn(List.of(new ItemDto(1L, "item", "good item", true, null, null, null, null, null)));
+        Mockito.when(bookingService.getAllOwnerBookings(Mockito.eq(1L), Mockito.anyString(), Mockito.eq(0),
+                        Mockito.eq(Optional.of(20))))
+                .thenThrow(new ValidationFailException("Unknown state: UNSUPPORTED_STATUS"));
+        Mockito.when(itemRequestService.getAllRequests(1L, 0, Optional.of(20)))
+                .thenReturn(Collections.emptyList());
+
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> dashboardService.getOwnerDashboard(1L, Optional.empty())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Unknown state: UNSUPPORTED_STATUS")));
+    }
+
+    @Test
+    public void testGetOwnerDashboard_StandardBehaviour_ThenOK() {
+        List<ItemDto> items = List.of(new ItemDto(1L, "item", "good item", true, null, null, null, null, null));
+        List<BookingDto> waitingBookings = List.of(new BookingDto(1L, null, null, null, null, null));
+        List<BookingDto> currentBookings = List.of(new BookingDto(2L, null, null, null, null, null));
+        Mockito.when(itemService.getByUser(1L, 0, Optional.of(5)))
+                .thenReturn(items);
+        Mockito.when(bookingService.getAllOwnerBookings(1L, "WAITING", 0, Optional.of(5)))
+                .thenReturn(waitingBookings);
+        Mockito.when(bookingService.getAllOwnerBookings(1L, "CURRENT", 0, Optional.of(5)))
+                .thenReturn(currentBookings);
+        Mockito.when(itemRequestService.getAllRequests(1L, 0, Optional.of(5)))
+                .thenReturn(Collections.emptyList());
+
+        OwnerDashboardDto dashboard = dashboardService.getOwnerDashboard(1L, Optional.of(5));
+
+        assertThat(dashboard.getItems(), is(items));
+        assertThat(dashboard.getWaitingBookings(), is(waitingBookings));
+        assertThat(dashboard.getCurrentBookings(), is(currentBookings));
+        assertThat(dashboard.getRequests(), is(equalTo(Collections.emptyList())));
+        assertThat(dashboard.getTimingsMillis().keySet(), hasItems("items", "waitingBookings", "currentBookings",
+                "requests", "total"));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.datasource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingDataSourceTest {
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource firstReplica;
+    @Mock
+    private DataSource secondReplica;
+
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    public void setReplicaRoutingDataSource() {
+        readYourWritesTracker = new ReadYourWritesTracker(60_000);
+        replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica),
+                readYourWritesTracker);
+        replicaRoutingDataSource.afterPropertiesSet();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", "1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void resetContext() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testGetConnection_WhenNotReadOnly_ThenPrimary() throws SQLException {
+        replicaRoutingDataSource.getConnection();
+
+        Mockito.verify(primary, Mockito.times(1)).getConnection();
+        Mockito.verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    public void testGetConnection_WhenReadOnly_ThenReplicasInTurn() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        replicaRoutingDataSource.getConnection();
+        replicaRoutingDataSource.getConnection();
+
+        Mockito.verify(firstReplica, Mockito.times(1)).getConnection();
+        Mockito.verify(secondReplica, Mockito.times(1)).getConnection();
+        Mockito.verifyNoInteractions(primary);
+    }
+
+    @Test
+    public void testGetConnection_WhenReadOnly_ThenTransactionMarkedAsOnReplica() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        replicaRoutingDataSource.getConnection();
+
+        assertThat(ReplicaRoutingDataSource.isCurrentTransactionOnReplica(), is(true));
+    }
+
+    @Test
+    public void testGetConnection_WhenNotReadOnly_ThenTransactionNotMarked() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        replicaRoutingDataSource.getConnection();
+
+        assertThat(ReplicaRoutingDataSource.isCurrentTransactionOnReplica(), is(false));
+    }
+
+    @Test
+    public void testGetConnection_WhenReadOnlyAfterOwnWrite_ThenPrimary() throws SQLException {
+        readYourWritesTracker.recordWrite(1L, 2L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        replicaRoutingDataSource.getConnection();
+
+        Mockito.verify(primary, Mockito.times(1)).getConnection();
+        Mockito.verifyNoInteractions(firstReplica, secondReplica);
+    }
+
+    @Test
+    public void testGetConnection_WhenReadOnlyAfterOtherUserWrite_ThenReplica() throws SQLException {
+        readYourWritesTracker.recordWrite(3L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        replicaRoutingDataSource.getConnection();
+
+        Mockito.verify(firstReplica, Mockito.times(1)).getConnection();
+        Mockito.verifyNoInteractions(primary);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.export;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+@WebMvcTest(controllers = ExportController.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ExportControllerTest {
+    private final MockMvc mvc;
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    public void testExportOwnerItems_ThenOK() throws Exception {
+        when(exportService.exportOwnerItems(1L, ExportFormat.NDJSON))
+                .thenReturn(outputStream -> outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ExportFormat.NDJSON.getMediaType()))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    public void testExportOwnerBookings_WhenCsv_ThenOK() throws Exception {
+        when(exportService.exportOwnerBookings(1L, ExportFormat.CSV))
+                .thenReturn(outputStream -> outputStream.write("id\n1\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export?format=csv")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id\n1\n"));
+    }
+
+    @Test
+    public void testExportOwnerBookings_WhenUnknownFormat_ThenBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner/export?format=xml")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportOwnerItems_WhenUserNotFound_ThenNotFound() throws Exception {
+        when(exportService.exportOwnerItems(anyLong(), any(ExportFormat.class)))
+                .thenThrow(NoSuchElementException.class);
+
+        mvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(status().isNotFound());
+    }
+}
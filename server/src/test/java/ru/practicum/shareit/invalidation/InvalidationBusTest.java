@@ -0,0 +1,146 @@
+package ru.practicum.shareit.invalidation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class InvalidationBusTest {
+    private SimpleMeterRegistry remoteMeterRegistry;
+    private InvalidationBus localBus;
+    private InvalidationBus remoteBus;
+
+    @BeforeEach
+    public void setInvalidationBuses() {
+        InMemoryInvalidationTransport transport = new InMemoryInvalidationTransport();
+        remoteMeterRegistry = new SimpleMeterRegistry();
+        localBus = new InvalidationBus(transport, new SimpleMeterRegistry());
+        remoteBus = new InvalidationBus(transport, remoteMeterRegistry);
+    }
+
+    @Test
+    public void testPublish_ThenEvictedOnBothNodesOnce() {
+        RecordingListener local = new RecordingListener();
+        RecordingListener remote = new RecordingListener();
+        localBus.subscribe("items", local);
+        remoteBus.subscribe("items", remote);
+
+        localBus.publish("items", 7L);
+
+        assertThat(local.evicted, is(equalTo(List.of(7L))));
+        assertThat(remote.evicted, is(equalTo(List.of(7L))));
+        assertThat(remoteMeterRegistry.get("shareit.invalidation.latency").tag("transport", "memory")
+                .timer().count(), is(1L));
+    }
+
+    @Test
+    public void testPublish_WhenRemoteOnlyListener_ThenNotCalledLocally() {
+        RecordingListener local = new RecordingListener();
+        RecordingListener remote = new RecordingListener();
+        localBus.subscribeRemote("items", local);
+        remoteBus.subscribeRemote("items", remote);
+
+        localBus.publish("items", 7L);
+
+        assertThat(local.evicted.isEmpty(), is(true));
+        assertThat(remote.evicted, is(equalTo(List.of(7L))));
+    }
+
+    @Test
+    public void testPublish_WhenOtherRegion_ThenNotEvicted() {
+        RecordingListener remote = new RecordingListener();
+        remoteBus.subscribe("users", remote);
+
+        localBus.publish("items", 7L);
+
+        assertThat(remote.evicted.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testPublish_WhenTransactionalTransport_ThenSentWithinTransactionAndEvictedLocallyAfterCommit() {
+        RecordingTransport transport = new RecordingTransport();
+        InvalidationBus bus = new InvalidationBus(transport, new SimpleMeterRegistry());
+        RecordingListener local = new RecordingListener();
+        bus.subscribe("items", local);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bus.publish("items", 7L);
+
+            assertThat(transport.messages.size(), is(1));
+            assertThat(local.evicted.isEmpty(), is(true));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(transport.messages.size(), is(1));
+        assertThat(local.evicted, is(equalTo(List.of(7L))));
+    }
+
+    @Test
+    public void testPublish_WhenTransactionalTransportFails_ThenThrow() {
+        RecordingTransport transport = new RecordingTransport();
+        transport.failing = true;
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InvalidationBus bus = new InvalidationBus(transport, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assertions.assertThrows(IllegalStateException.class, () -> bus.publish("items", 7L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(meterRegistry.get("shareit.invalidation.failed").counter().count(), is(1.0));
+    }
+
+    private static class RecordingTransport implements InvalidationTransport {
+        private final List<String> messages = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(String message) {
+            if (failing) {
+                throw new IllegalStateException("Notification queue is full");
+            }
+            messages.add(message);
+        }
+
+        @Override
+        public boolean isTransactional() {
+            return true;
+        }
+
+        @Override
+        public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        }
+    }
+
+    private static class RecordingListener implements InvalidationListener {
+        private final List<Long> evicted = new ArrayList<>();
+
+        @Override
+        public void evict(long key) {
+            evicted.add(key);
+        }
+
+        @Override
+        public void evictAll() {
+            evicted.clear();
+        }
+    }
+}
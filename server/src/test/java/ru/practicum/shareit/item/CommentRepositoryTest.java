@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Comment;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CommentRepositoryTest {
+    private final CommentRepository commentRepository;
+
+    private Comment newestComment;
+
+    @BeforeEach
+    public void addComments() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        commentRepository.save(new Comment(null, 3L, "Старый отзыв", "Иван", now.minusDays(10)));
+        commentRepository.save(new Comment(null, 3L, "Свежий отзыв", "Олег", now.minusHours(2)));
+        newestComment = commentRepository.save(new Comment(null, 3L, "Самый свежий", "Анна", now.minusHours(1)));
+    }
+
+    @Test
+    public void testFindRecentByItemIdIn_ThenLimitPerItem() {
+        Map<Long, List<Comment>> comments = commentRepository.findRecentByItemIdIn(List.of(3L, 2L), 2).stream()
+                .collect(Collectors.groupingBy(Comment::getItemId));
+
+        assertThat(comments.get(3L).size(), is(2));
+        assertThat(comments.get(3L).get(0).getId(), is(newestComment.getId()));
+        assertThat(comments.get(3L).get(1).getText(), is("Свежий отзыв"));
+        assertThat(comments.get(2L).size(), is(1));
+    }
+
+    @Test
+    public void testCountByItemIdIn() {
+        Map<Long, Long> counts = commentRepository.countByItemIdIn(List.of(2L, 3L, 4L)).stream()
+                .collect(Collectors.toMap(CommentRepository.CommentCount::getItemId,
+                        CommentRepository.CommentCount::getCount));
+
+        assertThat(counts.get(3L), is(3L));
+        assertThat(counts.get(2L), is(1L));
+        assertThat(counts.containsKey(4L), is(false));
+    }
+
+    @Test
+    public void testFindAllByItemIdBefore_ThenNextPage() {
+        List<Comment> firstPage = commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(3L, PageRequest.of(0, 2));
+        Comment last = firstPage.get(1);
+
+        List<Comment> secondPage = commentRepository.findAllByItemIdBefore(3L, last.getCreated(), last.getId(),
+                PageRequest.of(0, 2));
+
+        assertThat(firstPage.get(0).getId(), is(newestComment.getId()));
+        assertThat(secondPage.size(), is(1));
+        assertThat(secondPage.get(0).getText(), is("Старый отзыв"));
+    }
+}
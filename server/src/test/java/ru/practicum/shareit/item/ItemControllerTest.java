@@ -6,6 +6,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -15,13 +17,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.export.ExportFormat;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -34,8 +44,10 @@ public class ItemControllerTest {
     private final MockMvc mvc;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImportService itemImportService;
 
-    private final ItemDto itemDto = new ItemDto(1L, "Дрель", "На радость соседям", true, null, null, null, null);
+    private final ItemDto itemDto = new ItemDto(1L, "Дрель", "На радость соседям", true, null, null, null, null, null);
     private final CommentDto commentDto = new CommentDto(1L, "Хорошая дрель, соседи в восторге!", "John",
             LocalDateTime.now());
 
@@ -58,7 +70,7 @@ public class ItemControllerTest {
 
     @Test
     public void testAddNewItem_WhenBlankName_ThenBadRequest() throws Exception {
-        ItemDto badItemDto = new ItemDto(1L, "", "хорошо сверлит", true, null, null, null, null);
+        ItemDto badItemDto = new ItemDto(1L, "", "хорошо сверлит", true, null, null, null, null, null);
 
         mvc.perform(post("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -71,7 +83,7 @@ public class ItemControllerTest {
 
     @Test
     public void testAddNewItem_WhenBlankDescription_ThenBadRequest() throws Exception {
-        ItemDto badItemDto = new ItemDto(1L, "дрель", "", true, null, null, null, null);
+        ItemDto badItemDto = new ItemDto(1L, "дрель", "", true, null, null, null, null, null);
 
         mvc.perform(post("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -84,7 +96,7 @@ public class ItemControllerTest {
 
     @Test
     public void testAddNewItem_WhenNullAvailable_ThenBadRequest() throws Exception {
-        ItemDto badItemDto = new ItemDto(1L, "дрель", "хорошо сверлит", null, null, null, null, null);
+        ItemDto badItemDto = new ItemDto(1L, "дрель", "хорошо сверлит", null, null, null, null, null, null);
 
         mvc.perform(post("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -139,8 +151,8 @@ public class ItemControllerTest {
 
     @Test
     public void testGetById_ThenOK() throws Exception {
-        when(itemService.getById(anyLong(), anyLong()))
-                .thenReturn(itemDto);
+        when(itemService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(itemDto, "item-1"));
 
         mvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1)
@@ -148,12 +160,27 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(itemDto.getName())))
-                .andExpect(jsonPath("$.description", is(itemDto.getDescription())));
+                .andExpect(jsonPath("$.description", is(itemDto.getDescription())))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-1\""));
+    }
+
+    @Test
+    public void testGetById_WhenNotModified_ThenNotModified() throws Exception {
+        when(itemService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(itemDto, "item-1"));
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-1\""))
+                .andExpect(content().string(""));
     }
 
     @Test
     public void testGetById_WhenItemNotExists_ThenNotFound() throws Exception {
-        when(itemService.getById(anyLong(), anyLong()))
+        when(itemService.getTaggedById(anyLong(), anyLong()))
                 .thenThrow(new NoSuchElementException());
 
         mvc.perform(get("/items/1")
@@ -234,4 +261,61 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    public void testImportItems_ThenOK() throws Exception {
+        when(itemImportService.importItems(anyLong(), eq(ExportFormat.CSV), any(InputStream.class)))
+                .thenReturn(new ItemImportResultDto(1, 1, List.of(new ItemImportErrorDto(3,
+                        "Field 'name' can't be blank!"))));
+
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("format", "csv")
+                        .content("name,description,available\nДрель,На радость соседям,true\n,Пусто,true\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+    }
+
+    @Test
+    public void testImportItems_WhenUnknownFormat_ThenBadRequest() throws Exception {
+        mvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("format", "xml")
+                        .content("<items/>")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetByIds_ThenOK() throws Exception {
+        when(itemService.getByIds(anyLong(), anyList()))
+                .thenReturn(new MultiGetDto<>(List.of(itemDto), List.of(7L)));
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("ids", "1,7")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$.missing[0]", is(7L), Long.class));
+    }
+
+    @Test
+    public void testGetComments_ThenOK() throws Exception {
+        when(itemService.getComments(anyLong(), eq("abc"), any()))
+                .thenReturn(new CommentPageDto(List.of(commentDto), "def"));
+
+        mvc.perform(get("/items/1/comments")
+                        .param("cursor", "abc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id", is(commentDto.getId()), Long.class))
+                .andExpect(jsonPath("$.nextCursor", is("def")));
+    }
 }
@@ -4,21 +4,28 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.CoreMatchers.*;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemRepositoryTest {
     private final ItemRepository itemRepository;
+    private final TestEntityManager testEntityManager;
 
     @Test
     public void testFindAllByOwnerIdOrderByIdAsc_WhenUserHaveItems_ThenReturnItems() {
@@ -92,4 +99,54 @@ public class ItemRepositoryTest {
 
         assertThat(foundItems, is(equalTo(Collections.emptyList())));
     }
+
+    @Test
+    public void testStreamAllByOwnerIdOrderByIdAsc() {
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderByIdAsc(1L)) {
+            List<Long> itemIds = items.map(Item::getId).collect(Collectors.toList());
+
+            assertThat(itemIds, is(equalTo(List.of(1L, 2L, 3L))));
+        }
+    }
+
+    @Test
+    public void testFindAllByOwnerIdOrderByIdAsc_WhenRepeated_ThenServedFromSecondLevelCache() {
+        EntityManagerFactory entityManagerFactory = testEntityManager.getEntityManager().getEntityManagerFactory();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemRepository.findAllByOwnerIdOrderByIdAsc(5L);
+        testEntityManager.clear();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        List<Item> foundItems = itemRepository.findAllByOwnerIdOrderByIdAsc(5L);
+
+        assertThat(foundItems, is(equalTo(List.of(new Item(6L, "Молоток", "С гвоздодером", true, 5L, 2L)))));
+        assertThat(statistics.getQueryCacheHitCount() - queryCacheHits, is(1L));
+        assertThat(entityManagerFactory.getCache().contains(Item.class, 6L), is(true));
+    }
+
+    @Test
+    public void testFindAllByOwnerIdOrderByIdAsc_WhenItemUpdated_ThenCachedResultNotUsed() {
+        itemRepository.findAllByOwnerIdOrderByIdAsc(5L);
+        Item item = itemRepository.findById(6L).orElseThrow();
+        item.setName("Кувалда");
+        itemRepository.saveAndFlush(item);
+        testEntityManager.clear();
+
+        List<Item> foundItems = itemRepository.findAllByOwnerIdOrderByIdAsc(5L);
+
+        assertThat(foundItems, is(equalTo(List.of(new Item(6L, "Кувалда", "С гвоздодером", true, 5L, 2L)))));
+    }
+
+    @Test
+    public void testSave_WhenItemUpdated_ThenVersionIncremented() {
+        Item item = itemRepository.findById(6L).orElseThrow();
+        long version = item.getVersion();
+        item.setDescription("Без гвоздодера");
+        itemRepository.saveAndFlush(item);
+        testEntityManager.clear();
+
+        Item updatedItem = itemRepository.findById(6L).orElseThrow();
+
+        assertThat(updatedItem.getVersion(), is(version + 1));
+    }
 }
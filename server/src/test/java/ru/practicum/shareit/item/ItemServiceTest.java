@@ -11,18 +11,26 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.change.ChangeType;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ForbiddenAccessException;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.MultiGetDto;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -36,39 +44,54 @@ public class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ChangeLog changeLog;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
 
     private ItemService itemService;
 
     @BeforeEach
     public void setItemService() {
-        this.itemService = new ItemServiceImpl(commentRepository, itemRepository, userRepository, bookingRepository);
+        this.itemService = new ItemServiceImpl(commentRepository, itemRepository, userRepository, bookingRepository,
+                changeLog, itemViewCache,
+                new UserExistenceChecker(userRepository, invalidationBus, transactionManager, 1024),
+                readYourWritesTracker);
     }
 
     @Test
     public void testAdd_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
-                () -> itemService.add(1L, new ItemDto(null, "item", "good item", true, null, null, null, null))
+                () -> itemService.add(1L, new ItemDto(null, "item", "good item", true, null, null, null, null, null))
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testAdd_WhenUserExists_ThenOK() {
-        Mockito.when(userRepository.findById(1L))
-                .thenReturn(Optional.of(new User(1L, "John", "john@mail.ru")));
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenReturn(new Item());
 
-        itemService.add(1L, new ItemDto(null, "item", "good item", true, null, null, null, null));
+        itemService.add(1L, new ItemDto(null, "item", "good item", true, null, null, null, null, null));
 
         Item expectedItem = new Item(null, "item", "good item", true, 1L, null);
         Mockito.verify(itemRepository, Mockito.times(1)).save(expectedItem);
+        Mockito.verify(changeLog, Mockito.times(1)).record(Mockito.eq(ChangeType.ITEM), Mockito.any());
+        Mockito.verify(readYourWritesTracker, Mockito.times(1)).recordWrite(1L);
     }
 
     @Test
@@ -106,7 +129,7 @@ public class ItemServiceTest {
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenReturn(new Item());
 
-        ItemDto itemDto = new ItemDto(1L, "new item", null, null, null, null, null, null);
+        ItemDto itemDto = new ItemDto(1L, "new item", null, null, null, null, null, null, null);
 
         itemService.update(1L, 1L, itemDto);
         item.setName("new item");
@@ -123,7 +146,7 @@ public class ItemServiceTest {
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenReturn(new Item());
 
-        ItemDto itemDto = new ItemDto(1L, null, "best item", null, null, null, null, null);
+        ItemDto itemDto = new ItemDto(1L, null, "best item", null, null, null, null, null, null);
 
         itemService.update(1L, 1L, itemDto);
         item.setDescription("best item");
@@ -140,12 +163,13 @@ public class ItemServiceTest {
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenReturn(new Item());
 
-        ItemDto itemDto = new ItemDto(1L, null, null, false, null, null, null, null);
+        ItemDto itemDto = new ItemDto(1L, null, null, false, null, null, null, null, null);
 
         itemService.update(1L, 1L, itemDto);
         item.setAvailable(false);
 
         Mockito.verify(itemRepository, Mockito.times(1)).save(item);
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidate(1L);
     }
 
     @Test
@@ -157,7 +181,7 @@ public class ItemServiceTest {
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
                 .thenReturn(new Item());
 
-        ItemDto itemDto = new ItemDto(1L, "new item", "best item", false, null, null, null, null);
+        ItemDto itemDto = new ItemDto(1L, "new item", "best item", false, null, null, null, null, null);
 
         itemService.update(1L, 1L, itemDto);
         item.setName("new item");
@@ -167,6 +191,37 @@ public class ItemServiceTest {
         Mockito.verify(itemRepository, Mockito.times(1)).save(item);
     }
 
+    @Test
+    public void testGetById_WhenCached_ThenNoQueries() {
+        ItemDto cachedItem = new ItemDto(1L, "item", "good item", true, null, null, List.of(), null, 0L);
+        Mockito.when(itemViewCache.get(1L, 2L))
+                .thenReturn(Optional.of(cachedItem));
+
+        ItemDto itemDto = itemService.getById(2L, 1L);
+
+        assertThat(itemDto, is(sameInstance(cachedItem)));
+        Mockito.verifyNoInteractions(itemRepository, commentRepository, bookingRepository);
+    }
+
+    @Test
+    public void testGetById_WhenUserIsOwner_ThenCacheUntilNextBookingBoundary() {
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        Mockito.when(itemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 1L, null)));
+        Mockito.when(bookingRepository.findAllByItemIdIn(Mockito.anyList()))
+                .thenReturn(List.of(new Booking(2L, nextStart, nextStart.plusDays(1), 1L, 20L,
+                        BookingStatus.APPROVED)));
+        Mockito.when(itemViewCache.generation(1L))
+                .thenReturn(3L);
+
+        itemService.getById(1L, 1L);
+
+        Mockito.verify(itemViewCache, Mockito.times(1)).put(Mockito.eq(1L), Mockito.eq(1L), Mockito.eq(false),
+                Mockito.any(ItemDto.class), Mockito.isNull(), Mockito.eq(3L));
+        Mockito.verify(itemViewCache, Mockito.times(1)).put(Mockito.eq(1L), Mockito.eq(1L), Mockito.eq(true),
+                Mockito.any(ItemDto.class), Mockito.eq(nextStart), Mockito.eq(3L));
+    }
+
     @Test
     public void testGetById_WhenItemNotExists_ThenThrow() {
         Mockito.when(itemRepository.findById(Mockito.anyLong()))
@@ -186,7 +241,7 @@ public class ItemServiceTest {
                 LocalDateTime.now().minusYears(1)));
         Mockito.when(itemRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 100L, null)));
-        Mockito.when(commentRepository.findAllByItemIdIn(Mockito.anyList()))
+        Mockito.when(commentRepository.findRecentByItemIdIn(Mockito.anyList(), Mockito.anyInt()))
                 .thenReturn(comments);
 
         ItemDto itemDto = itemService.getById(1L, 1L);
@@ -213,7 +268,7 @@ public class ItemServiceTest {
 
         Mockito.when(itemRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 1L, null)));
-        Mockito.when(commentRepository.findAllByItemIdIn(Mockito.anyList()))
+        Mockito.when(commentRepository.findRecentByItemIdIn(Mockito.anyList(), Mockito.anyInt()))
                 .thenReturn(comments);
         Mockito.when(bookingRepository.findAllByItemIdIn(Mockito.anyList()))
                 .thenReturn(bookings);
@@ -253,7 +308,7 @@ public class ItemServiceTest {
         Comment firstItemComment = new Comment(1L, 1L, "good item", "Sam", LocalDateTime.now().minusDays(1));
         Comment secondItemComment = new Comment(2L, 2L, "best item", "John", LocalDateTime.now().minusDays(1));
         List<Comment> comments = List.of(firstItemComment, secondItemComment);
-        Mockito.when(commentRepository.findAllByItemIdIn(Mockito.anyList()))
+        Mockito.when(commentRepository.findRecentByItemIdIn(Mockito.anyList(), Mockito.anyInt()))
                 .thenReturn(comments);
 
         List<ItemDto> foundItems = itemService.getByUser(1L, 0, Optional.of(5));
@@ -327,5 +382,86 @@ public class ItemServiceTest {
         itemService.addComment(1L, 1L, new CommentCreateDto("good item"));
 
         Mockito.verify(commentRepository, Mockito.times(1)).save(Mockito.any(Comment.class));
+        Mockito.verify(changeLog, Mockito.times(1)).record(Mockito.eq(ChangeType.COMMENT), Mockito.any());
+        Mockito.verify(itemViewCache, Mockito.times(1)).invalidate(1L);
+    }
+
+    @Test
+    public void testGetByIds_ThenBookingsOnlyForOwnedItems() {
+        Item ownItem = new Item(1L, "Дрель", "Ударная", true, 1L, null);
+        Item foreignItem = new Item(2L, "Пила", "Ножовка", true, 2L, null);
+        Booking lastBooking = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                1L, 3L, BookingStatus.APPROVED);
+        Mockito.when(itemRepository.findAllById(List.of(2L, 5L, 1L)))
+                .thenReturn(List.of(ownItem, foreignItem));
+        Mockito.when(bookingRepository.findAllByItemIdIn(List.of(1L)))
+                .thenReturn(List.of(lastBooking));
+
+        MultiGetDto<ItemDto> result = itemService.getByIds(1L, List.of(2L, 5L, 1L));
+
+        assertThat(result.getFound().size(), is(2));
+        assertThat(result.getFound().get(0).getId(), is(2L));
+        assertThat(result.getFound().get(0).getLastBooking(), is(nullValue()));
+        assertThat(result.getFound().get(1).getId(), is(1L));
+        assertThat(result.getFound().get(1).getLastBooking().getId(), is(1L));
+        assertThat(result.getMissing(), is(equalTo(List.of(5L))));
+        Mockito.verify(bookingRepository, Mockito.times(1)).findAllByItemIdIn(List.of(1L));
+    }
+
+    @Test
+    public void testGetById_ThenRecentCommentsAndCount() {
+        Mockito.when(itemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 100L, null)));
+        Mockito.when(commentRepository.findRecentByItemIdIn(List.of(1L), 10))
+                .thenReturn(List.of(new Comment(5L, 1L, "latest", "Sam", LocalDateTime.now().minusHours(1))));
+        Mockito.when(commentRepository.countByItemIdIn(List.of(1L)))
+                .thenReturn(List.of(new CommentRepository.CommentCount() {
+                    @Override
+                    public Long getItemId() {
+                        return 1L;
+                    }
+
+                    @Override
+                    public Long getCount() {
+                        return 25L;
+                    }
+                }));
+
+        ItemDto itemDto = itemService.getById(1L, 1L);
+
+        assertThat(itemDto.getComments().size(), is(equalTo(1)));
+        assertThat(itemDto.getCommentsCount(), is(equalTo(25L)));
+    }
+
+    @Test
+    public void testGetComments_WhenFullPage_ThenNextCursorContinuesAfterLastComment() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        Mockito.when(itemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 100L, null)));
+        Mockito.when(commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(Mockito.anyLong(),
+                        Mockito.any(Pageable.class)))
+                .thenReturn(List.of(new Comment(7L, 1L, "newest", "Sam", created.plusHours(1)),
+                        new Comment(6L, 1L, "older", "John", created)));
+
+        CommentPageDto firstPage = itemService.getComments(1L, null, Optional.of(2));
+        itemService.getComments(1L, firstPage.getNextCursor(), Optional.of(2));
+
+        assertThat(firstPage.getComments().size(), is(equalTo(2)));
+        assertThat(firstPage.getNextCursor(), is(notNullValue()));
+        Mockito.verify(commentRepository, Mockito.times(1)).findAllByItemIdBefore(Mockito.eq(1L),
+                Mockito.eq(created), Mockito.eq(6L), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    public void testGetComments_WhenInvalidCursor_ThenThrow() {
+        Mockito.when(itemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(new Item(1L, "item", "good item", true, 100L, null)));
+
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> itemService.getComments(1L, "not-a-cursor", Optional.empty())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Invalid cursor: not-a-cursor")));
     }
 }
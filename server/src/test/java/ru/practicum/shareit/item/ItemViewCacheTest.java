@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.invalidation.InMemoryInvalidationTransport;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class ItemViewCacheTest {
+    private final ItemDto publicView = new ItemDto(1L, "Дрель", "Ударная", true, null, null, List.of(), null, 0L);
+    private final ItemDto ownerView = new ItemDto(1L, "Дрель", "Ударная", true, null, null, List.of(), null, 0L);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemViewCache itemViewCache;
+
+    @BeforeEach
+    public void setItemViewCache() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemViewCache = new ItemViewCache(meterRegistry,
+                new InvalidationBus(new InMemoryInvalidationTransport(), meterRegistry), 1_000_000L, 600L);
+    }
+
+    @Test
+    public void testGet_ThenOwnerAndNonOwnerVariantsSeparated() {
+        long generation = itemViewCache.generation(1L);
+        itemViewCache.put(1L, 10L, false, publicView, null, generation);
+
+        assertThat(itemViewCache.get(1L, 20L), is(Optional.of(publicView)));
+        assertThat(itemViewCache.get(1L, 10L), is(Optional.empty()));
+
+        itemViewCache.put(1L, 10L, true, ownerView, LocalDateTime.now().plusDays(1), generation);
+
+        assertThat(itemViewCache.get(1L, 10L).get(), is(sameInstance(ownerView)));
+        assertThat(itemViewCache.get(1L, 20L).get(), is(sameInstance(publicView)));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemViews").tag("result", "hit")
+                .functionCounter().count(), is(5.0));
+    }
+
+    @Test
+    public void testInvalidateOwnerView_ThenPublicViewKept() {
+        long generation = itemViewCache.generation(1L);
+        itemViewCache.put(1L, 10L, false, publicView, null, generation);
+        itemViewCache.put(1L, 10L, true, ownerView, null, generation);
+
+        itemViewCache.invalidateOwnerView(1L);
+
+        assertThat(itemViewCache.get(1L, 10L), is(Optional.empty()));
+        assertThat(itemViewCache.get(1L, 20L), is(Optional.of(publicView)));
+    }
+
+    @Test
+    public void testPut_WhenInvalidatedWhileLoading_ThenNotCached() {
+        long generation = itemViewCache.generation(1L);
+
+        itemViewCache.invalidate(1L);
+        itemViewCache.put(1L, 10L, false, publicView, null, generation);
+
+        assertThat(itemViewCache.get(1L, 20L), is(Optional.empty()));
+    }
+
+    @Test
+    public void testPut_WhenTransactionReadsReplica_ThenNotCached() throws SQLException {
+        ReplicaRoutingDataSource replicaRoutingDataSource = new ReplicaRoutingDataSource(
+                Mockito.mock(DataSource.class), List.of(Mockito.mock(DataSource.class)),
+                new ReadYourWritesTracker(0));
+        replicaRoutingDataSource.afterPropertiesSet();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            replicaRoutingDataSource.getConnection();
+            itemViewCache.put(1L, 10L, false, publicView, null, itemViewCache.generation(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        assertThat(itemViewCache.get(1L, 20L), is(Optional.empty()));
+    }
+
+    @Test
+    public void testPut_WhenBookingBoundaryPassed_ThenNotCached() {
+        itemViewCache.put(1L, 10L, false, publicView, null, itemViewCache.generation(1L));
+        itemViewCache.put(1L, 10L, true, ownerView, LocalDateTime.now().minusSeconds(1),
+                itemViewCache.generation(1L));
+
+        assertThat(itemViewCache.get(1L, 10L), is(Optional.empty()));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.lane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import java.io.IOException;
+import java.util.List;
+
+public class LaneFilterTest {
+    private Lanes lanes;
+
+    @BeforeEach
+    public void setLanes() {
+        LaneProperties properties = new LaneProperties();
+        properties.setScan(new LaneProperties.Settings(1, 0, 10, 0.2));
+        lanes = new Lanes(properties, 10, List.of(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testClassify() {
+        Assertions.assertEquals(Lane.WRITE, LaneFilter.classify(request("POST", "/bookings")));
+        Assertions.assertEquals(Lane.WRITE, LaneFilter.classify(request("PATCH", "/bookings/1")));
+        Assertions.assertEquals(Lane.READ, LaneFilter.classify(request("GET", "/items/1")));
+        Assertions.assertEquals(Lane.READ, LaneFilter.classify(request("GET", "/requests")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/items/search")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/requests/all")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/bookings/owner")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/bookings/owner/export")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/items/export")));
+        Assertions.assertEquals(Lane.SCAN, LaneFilter.classify(request("GET", "/dashboard/owner")));
+        MockHttpServletRequest waiting = request("GET", "/bookings/owner");
+        waiting.setParameter("state", "WAITING");
+        Assertions.assertEquals(Lane.READ, LaneFilter.classify(waiting));
+    }
+
+    @Test
+    public void testDoFilter_WhenLaneFree_ThenPassedOnWithGate() throws ServletException, IOException {
+        MockHttpServletRequest request = request("GET", "/items/search");
+        LaneGate[] gate = new LaneGate[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, (servletRequest, servletResponse, filterChain) ->
+                gate[0] = (LaneGate) servletRequest.getAttribute(Lanes.GATE_ATTRIBUTE));
+
+        new LaneFilter(lanes).doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertSame(lanes.gate(Lane.SCAN), gate[0]);
+        Assertions.assertNull(request.getAttribute(Lanes.GATE_ATTRIBUTE));
+    }
+
+    @Test
+    public void testDoFilter_WhenLaneFull_ThenServiceUnavailable() throws ServletException, IOException,
+            InterruptedException {
+        long started = lanes.gate(Lane.SCAN).enter();
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LaneFilter(lanes).doFilter(request("GET", "/requests/all"), response, chain);
+
+        Assertions.assertNull(chain.getRequest());
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+
+        lanes.gate(Lane.SCAN).exit(started);
+        MockFilterChain nextChain = new MockFilterChain();
+        new LaneFilter(lanes).doFilter(request("GET", "/items/1"), new MockHttpServletResponse(), nextChain);
+        Assertions.assertNotNull(nextChain.getRequest());
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
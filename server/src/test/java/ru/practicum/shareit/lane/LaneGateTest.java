@@ -0,0 +1,169 @@
+package ru.practicum.shareit.lane;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+
+public class LaneGateTest {
+    private MeterRegistry meterRegistry;
+    private LaneGate gate;
+
+    @BeforeEach
+    public void setGate() {
+        meterRegistry = new SimpleMeterRegistry();
+        gate = new LaneGate(Lane.SCAN, new LaneProperties.Settings(1, 1, 50, 0.2), 10, 1, meterRegistry);
+    }
+
+    @AfterEach
+    public void resetContext() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testEnter_WhenWorkerFree_ThenRuns() throws InterruptedException {
+        long started = gate.enter();
+
+        Assertions.assertTrue(started >= 0);
+        Assertions.assertEquals(1, meterRegistry.get("shareit.lanes.active").tag("lane", "scan").gauge().value());
+
+        gate.exit(started);
+        Assertions.assertEquals(0, meterRegistry.get("shareit.lanes.active").tag("lane", "scan").gauge().value());
+        Assertions.assertEquals(1, meterRegistry.get("shareit.lanes.latency").tag("lane", "scan").timer().count());
+    }
+
+    @Test
+    public void testEnter_WhenWorkerBusy_ThenWaitsAndTimesOut() throws InterruptedException {
+        gate.enter();
+
+        Assertions.assertEquals(-1, gate.enter());
+        Assertions.assertEquals(1, meterRegistry.get("shareit.lanes.rejections").tag("lane", "scan").counter()
+                .count());
+        Assertions.assertEquals(0, meterRegistry.get("shareit.lanes.queue-depth").tag("lane", "scan").gauge()
+                .value());
+    }
+
+    @Test
+    public void testEnter_WhenWorkerReleasedWhileQueued_ThenRuns() throws InterruptedException {
+        long first = gate.enter();
+        Thread releaser = new Thread(() -> gate.exit(first));
+
+        releaser.start();
+
+        Assertions.assertTrue(gate.enter() >= 0);
+        releaser.join();
+    }
+
+    @Test
+    public void testGetConnection_WhenLaneConnectionsInUse_ThenFailsUntilClosed() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        LaneDataSource dataSource = new LaneDataSource(target, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(Lanes.GATE_ATTRIBUTE, gate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        Assertions.assertEquals(2, gate.getMaxConnections(false));
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        dataSource.getConnection();
+        Assertions.assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    public void testGetConnection_WhenTaskOfRequestOnOtherThread_ThenLimited() throws Exception {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        LaneDataSource dataSource = new LaneDataSource(target, false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(Lanes.GATE_ATTRIBUTE, gate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Throwable[] failure = new Throwable[1];
+        Runnable task = new LaneTaskDecorator().decorate(() -> {
+            try {
+                dataSource.getConnection();
+                dataSource.getConnection();
+                dataSource.getConnection();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        });
+        RequestContextHolder.resetRequestAttributes();
+
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+
+        Assertions.assertTrue(failure[0] instanceof SQLTransientConnectionException);
+        Assertions.assertNull(Lanes.currentGate());
+    }
+
+    @Test
+    public void testGetConnection_WhenPrimaryConnectionsInUse_ThenReplicaStillTaken() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Mockito.when(target.getConnection()).thenAnswer(invocation -> Mockito.mock(Connection.class));
+        LaneDataSource primary = new LaneDataSource(target, false);
+        LaneDataSource replica = new LaneDataSource(target, true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(Lanes.GATE_ATTRIBUTE, gate);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        primary.getConnection();
+        primary.getConnection();
+
+        Assertions.assertThrows(SQLTransientConnectionException.class, primary::getConnection);
+        replica.getConnection();
+        replica.getConnection();
+        Assertions.assertThrows(SQLTransientConnectionException.class, replica::getConnection);
+    }
+
+    @Test
+    public void testLanes_WhenReplicas_ThenShareOfEachPool() {
+        Lanes lanes = new Lanes(new LaneProperties(), 10, List.of("jdbc:h2:mem:replica", "jdbc:h2:mem:other", " "),
+                meterRegistry);
+
+        Assertions.assertEquals(10, lanes.gate(Lane.WRITE).getMaxConnections(false));
+        Assertions.assertEquals(5, lanes.gate(Lane.READ).getMaxConnections(false));
+        Assertions.assertEquals(10, lanes.gate(Lane.READ).getMaxConnections(true));
+        Assertions.assertEquals(2, lanes.gate(Lane.SCAN).getMaxConnections(false));
+        Assertions.assertEquals(4, lanes.gate(Lane.SCAN).getMaxConnections(true));
+    }
+
+    @Test
+    public void testLanes_WhenReadsMayTakeWholePrimary_ThenFail() {
+        LaneProperties properties = new LaneProperties();
+        properties.setRead(new LaneProperties.Settings(40, 60, 1000, 0.8));
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class,
+                () -> new Lanes(properties, 10, List.of("jdbc:h2:mem:replica"), meterRegistry));
+
+        Assertions.assertEquals("Reads and scans may take 10 of the 10 primary connections; lower their connection "
+                + "shares to leave some to writes.", e.getMessage());
+    }
+
+    @Test
+    public void testGetConnection_WhenNoRequest_ThenNotLimited() throws SQLException {
+        DataSource target = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(target.getConnection()).thenReturn(connection);
+
+        Assertions.assertSame(connection, new LaneDataSource(target, false).getConnection());
+    }
+}
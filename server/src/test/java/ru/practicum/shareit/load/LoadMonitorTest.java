@@ -0,0 +1,85 @@
+package ru.practicum.shareit.load;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadMonitorTest {
+    private MeterRegistry meterRegistry;
+    private Timer acquire;
+    private Counter timeouts;
+    private AtomicInteger pending;
+    private LoadMonitor loadMonitor;
+
+    @BeforeEach
+    public void setLoadMonitor() {
+        meterRegistry = new SimpleMeterRegistry();
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "primary").register(meterRegistry);
+        timeouts = Counter.builder("hikaricp.connections.timeout").tag("pool", "primary").register(meterRegistry);
+        pending = new AtomicInteger();
+        Gauge.builder("hikaricp.connections.pending", pending, AtomicInteger::get).tag("pool", "primary")
+                .register(meterRegistry);
+        Gauge.builder("hikaricp.connections.max", () -> 10).tag("pool", "primary").register(meterRegistry);
+        loadMonitor = new LoadMonitor(50, 250, 2, 0);
+        loadMonitor.bindTo(meterRegistry);
+    }
+
+    @Test
+    public void testTryEnter_WhenIdle_ThenAllEnter() {
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.LOW));
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.NORMAL));
+        Assertions.assertEquals(0, loadMonitor.level());
+    }
+
+    @Test
+    public void testTryEnter_WhenWaitAboveLowThreshold_ThenLowShed() {
+        acquire.record(200, TimeUnit.MILLISECONDS);
+
+        Assertions.assertEquals(1, loadMonitor.level());
+        Assertions.assertFalse(loadMonitor.tryEnter(Priority.LOW));
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.NORMAL));
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.HIGH));
+        Assertions.assertEquals(1, meterRegistry.get("shareit.load.shed").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    public void testTryEnter_WhenConnectionTimedOut_ThenNormalShed() {
+        timeouts.increment();
+
+        Assertions.assertEquals(2, loadMonitor.level());
+        Assertions.assertFalse(loadMonitor.tryEnter(Priority.LOW));
+        Assertions.assertFalse(loadMonitor.tryEnter(Priority.NORMAL));
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.HIGH));
+    }
+
+    @Test
+    public void testTryEnter_WhenThreadsPending_ThenLevelByPendingPerConnection() {
+        pending.set(10);
+        Assertions.assertEquals(1, loadMonitor.level());
+
+        pending.set(20);
+        Assertions.assertEquals(2, loadMonitor.level());
+
+        pending.set(0);
+        Assertions.assertEquals(0, loadMonitor.level());
+    }
+
+    @Test
+    public void testTryEnter_WhenTooManyInFlight_ThenAllShed() {
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.HIGH));
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.HIGH));
+
+        Assertions.assertFalse(loadMonitor.tryEnter(Priority.HIGH));
+
+        loadMonitor.exit();
+        Assertions.assertTrue(loadMonitor.tryEnter(Priority.HIGH));
+    }
+}
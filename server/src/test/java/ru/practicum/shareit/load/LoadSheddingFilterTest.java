@@ -0,0 +1,130 @@
+package ru.practicum.shareit.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@ExtendWith(MockitoExtension.class)
+public class LoadSheddingFilterTest {
+    @Mock
+    private LoadMonitor loadMonitor;
+
+    @Test
+    public void testClassify() {
+        Assertions.assertEquals(Priority.HIGH, LoadSheddingFilter.classify(request("POST", "/bookings")));
+        Assertions.assertEquals(Priority.HIGH, LoadSheddingFilter.classify(request("PATCH", "/items/1")));
+        Assertions.assertEquals(Priority.NORMAL, LoadSheddingFilter.classify(request("GET", "/items/1")));
+        Assertions.assertEquals(Priority.LOW, LoadSheddingFilter.classify(request("GET", "/items/search")));
+        Assertions.assertEquals(Priority.LOW, LoadSheddingFilter.classify(request("GET", "/bookings/owner")));
+    }
+
+    @Test
+    public void testDoFilter_WhenEntered_ThenPassedOnAndExited() throws ServletException, IOException {
+        Mockito.when(loadMonitor.tryEnter(Priority.NORMAL)).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain();
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request("GET", "/items/1"), new MockHttpServletResponse(), chain);
+
+        Assertions.assertNotNull(chain.getRequest());
+        Mockito.verify(loadMonitor, Mockito.times(1)).exit();
+    }
+
+    @Test
+    public void testDoFilter_WhenAsyncStarted_ThenExitedOnCompletion() throws ServletException, IOException {
+        Mockito.when(loadMonitor.tryEnter(Priority.LOW)).thenReturn(true);
+        MockHttpServletRequest request = request("GET", "/items/export");
+        request.setAsyncSupported(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+            }
+        });
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request, new MockHttpServletResponse(), chain);
+
+        Mockito.verify(loadMonitor, Mockito.never()).exit();
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        Mockito.verify(loadMonitor, Mockito.times(1)).exit();
+    }
+
+    @Test
+    public void testDoFilter_WhenEventStreamStarted_ThenExitedBeforeCompletion() throws ServletException, IOException {
+        Mockito.when(loadMonitor.tryEnter(Priority.LOW)).thenReturn(true);
+        MockHttpServletRequest request = request("GET", "/bookings/stream");
+        request.setAsyncSupported(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                req.startAsync();
+                resp.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE + ";charset=UTF-8");
+            }
+        });
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request, new MockHttpServletResponse(), chain);
+
+        Mockito.verify(loadMonitor, Mockito.times(1)).exit();
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        Mockito.verify(loadMonitor, Mockito.times(1)).exit();
+    }
+
+    @Test
+    public void testDoFilter_WhenReadShed_ThenTooManyRequests() throws ServletException, IOException {
+        Mockito.when(loadMonitor.tryEnter(Priority.LOW)).thenReturn(false);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request("GET", "/items/search"), response, chain);
+
+        Assertions.assertNull(chain.getRequest());
+        Assertions.assertEquals(429, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+        Mockito.verify(loadMonitor, Mockito.never()).exit();
+    }
+
+    @Test
+    public void testDoFilter_WhenWriteShed_ThenServiceUnavailable() throws ServletException, IOException {
+        Mockito.when(loadMonitor.tryEnter(Priority.HIGH)).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request("POST", "/bookings"), response, new MockFilterChain());
+
+        Assertions.assertEquals(503, response.getStatus());
+        Assertions.assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    public void testDoFilter_WhenActuator_ThenNotShed() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+
+        new LoadSheddingFilter(loadMonitor).doFilter(request("GET", "/actuator/health"),
+                new MockHttpServletResponse(), chain);
+
+        Assertions.assertNotNull(chain.getRequest());
+        Mockito.verifyNoInteractions(loadMonitor);
+    }
+
+    private MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -5,6 +5,8 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -14,10 +16,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exceptions.ValidationFailException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -124,19 +128,34 @@ public class ItemRequestControllerTest {
 
     @Test
     public void testGetRequestById_ThenOK() throws Exception {
-        when(itemRequestService.getById(anyLong(), anyLong()))
-                .thenReturn(itemRequestDto);
+        when(itemRequestService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(itemRequestDto, "request-1"));
 
         mvc.perform(get("/requests/1")
                         .header("X-Sharer-User-Id", 1)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id", is(itemRequestDto.getId()), Long.class));
+                .andExpect(jsonPath("$.id", is(itemRequestDto.getId()), Long.class))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"request-1\""));
+    }
+
+    @Test
+    public void testGetRequestById_WhenNotModified_ThenNotModified() throws Exception {
+        when(itemRequestService.getTaggedById(anyLong(), anyLong()))
+                .thenReturn(Tagged.of(itemRequestDto, "request-1"));
+
+        mvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"request-1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"request-1\""))
+                .andExpect(content().string(""));
     }
 
     @Test
     public void testGetRequestById_WhenNotFound_ThenNotFound() throws Exception {
-        when(itemRequestService.getById(anyLong(), anyLong()))
+        when(itemRequestService.getTaggedById(anyLong(), anyLong()))
                 .thenThrow(new NoSuchElementException());
 
         mvc.perform(get("/requests/1")
@@ -12,11 +12,17 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.change.ChangeLog;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceChecker;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -31,32 +37,42 @@ public class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ChangeLog changeLog;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
 
     private ItemRequestService itemRequestService;
 
     @BeforeEach
     public void setItemRequestService() {
-        this.itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository);
+        this.itemRequestService = new ItemRequestServiceImpl(itemRequestRepository,
+                new UserExistenceChecker(userRepository, invalidationBus, transactionManager, 1024), itemRepository,
+                changeLog, readYourWritesTracker);
     }
 
     @Test
     public void testAdd_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
                 () -> itemRequestService.add(null, 1L)
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testAdd_StandardBehaviour_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRequestRepository.save(Mockito.any(ItemRequest.class)))
                 .thenReturn(new ItemRequest());
 
@@ -64,25 +80,26 @@ public class ItemRequestServiceTest {
         itemRequestService.add(itemRequestDto, 1L);
 
         Mockito.verify(itemRequestRepository, Mockito.times(1)).save(Mockito.any(ItemRequest.class));
+        Mockito.verify(readYourWritesTracker, Mockito.times(1)).recordWrite(1L);
     }
 
     @Test
     public void testGetAllOwnRequests_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
                 () -> itemRequestService.getAllOwnRequests(1L)
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testGetAllOwnRequests_StandardBehaviour_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRequestRepository.findAllByCreatorIdOrderByCreatedDesc(Mockito.anyLong()))
                 .thenReturn(Collections.singletonList(new ItemRequest(1L, "item pls", LocalDateTime.now(), 1L)));
         Mockito.when(itemRepository.findAllByRequestIdIn(Mockito.anyList()))
@@ -123,21 +140,21 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetAllRequests_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
                 () -> itemRequestService.getAllRequests(1L, 0, Optional.of(2))
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testGetAllRequests_StandardBehaviour_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRequestRepository.findAllByCreatorIdNotOrderByCreatedDesc(Mockito.anyLong(),
                 Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
 
@@ -149,21 +166,21 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetById_WhenUserNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.empty());
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(false);
 
         NoSuchElementException e = Assertions.assertThrows(
                 NoSuchElementException.class,
                 () -> itemRequestService.getById(1L, 1L)
         );
 
-        assertThat(e.getMessage(), is(equalTo("No value present")));
+        assertThat(e.getMessage(), is(equalTo("User with id = 1 not found!")));
     }
 
     @Test
     public void testGetById_WhenItemRequestNotExists_ThenThrow() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRequestRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.empty());
 
@@ -177,14 +194,33 @@ public class ItemRequestServiceTest {
 
     @Test
     public void testGetById_StandardBehaviour_ThenOK() {
-        Mockito.when(userRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(new User(1L, "John", "john@ya.ru")));
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
         Mockito.when(itemRequestRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(new ItemRequest(1L, "item pls", LocalDateTime.now(), 1L)));
 
         itemRequestService.getById(1L, 1L);
 
-        Mockito.verify(userRepository, Mockito.times(1)).findById(1L);
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(1L);
         Mockito.verify(itemRequestRepository, Mockito.times(1)).findById(1L);
     }
+
+    @Test
+    public void testGetTaggedById_WhenAnsweredItemChanges_ThenETagChanges() {
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
+        Mockito.when(itemRequestRepository.findById(1L))
+                .thenReturn(Optional.of(new ItemRequest(1L, "item pls", LocalDateTime.now(), 1L)));
+        Item item = new Item(1L, "item", "good item", true, 2L, 1L);
+        item.setVersion(0L);
+        Mockito.when(itemRepository.findAllByRequestIdIn(List.of(1L)))
+                .thenReturn(List.of(item));
+
+        Tagged<ItemRequestDto> first = itemRequestService.getTaggedById(1L, 1L);
+        item.setVersion(1L);
+        Tagged<ItemRequestDto> changed = itemRequestService.getTaggedById(1L, 1L);
+
+        assertThat(first.getBody().getItems().size(), is(1));
+        assertThat(changed.getETag(), is(not(equalTo(first.getETag()))));
+    }
 }
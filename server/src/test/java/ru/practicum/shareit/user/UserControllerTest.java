@@ -7,6 +7,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -16,9 +18,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -75,15 +80,29 @@ public class UserControllerTest {
 
     @Test
     public void testRead() throws Exception {
-        when(userService.read(anyLong()))
-                .thenReturn(userDto);
+        when(userService.readTagged(anyLong()))
+                .thenReturn(Tagged.of(userDto, "user-1"));
 
         mvc.perform(get("/users/1")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(userDto.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(userDto.getName())))
-                .andExpect(jsonPath("$.email", is(userDto.getEmail())));
+                .andExpect(jsonPath("$.email", is(userDto.getEmail())))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1\""));
+    }
+
+    @Test
+    public void testRead_WhenNotModified_ThenNotModified() throws Exception {
+        when(userService.readTagged(anyLong()))
+                .thenReturn(Tagged.of(userDto, "user-1"));
+
+        mvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"user-1\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"user-1\""))
+                .andExpect(content().string(""));
     }
 
     @Test
@@ -127,4 +146,17 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$[0].name", is(userDto.getName())))
                 .andExpect(jsonPath("$[0].email", is(userDto.getEmail())));
     }
+
+    @Test
+    public void testReadAllByIds() throws Exception {
+        when(userService.readAll(anyList()))
+                .thenReturn(new MultiGetDto<>(List.of(userDto), List.of(2L)));
+
+        mvc.perform(get("/users")
+                        .param("ids", "1,2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id", is(userDto.getId()), Long.class))
+                .andExpect(jsonPath("$.missing[0]", is(2L), Long.class));
+    }
 }
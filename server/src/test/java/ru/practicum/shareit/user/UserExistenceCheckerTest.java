@@ -0,0 +1,122 @@
+package ru.practicum.shareit.user;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.invalidation.InMemoryInvalidationTransport;
+import ru.practicum.shareit.invalidation.InvalidationBus;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExistenceCheckerTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+
+    private UserExistenceChecker userExistenceChecker;
+
+    @BeforeEach
+    public void setUserExistenceChecker() {
+        this.userExistenceChecker = new UserExistenceChecker(userRepository,
+                new InvalidationBus(new InMemoryInvalidationTransport(), new SimpleMeterRegistry()),
+                transactionManager, 128);
+    }
+
+    @AfterEach
+    public void resetTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void testRequireExists_WhenUserExists_ThenQueriedOnce() {
+        Mockito.when(userRepository.existsById(5L))
+                .thenReturn(true);
+
+        userExistenceChecker.requireExists(5L);
+        userExistenceChecker.requireExists(5L);
+
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(5L);
+    }
+
+    @Test
+    public void testRequireExists_WhenUserNotExists_ThenThrowAndNotRemembered() {
+        Mockito.when(userRepository.existsById(5L))
+                .thenReturn(false);
+
+        NoSuchElementException e = Assertions.assertThrows(
+                NoSuchElementException.class,
+                () -> userExistenceChecker.requireExists(5L)
+        );
+        assertThat(userExistenceChecker.exists(5L), is(false));
+
+        assertThat(e.getMessage(), is(equalTo("User with id = 5 not found!")));
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(5L);
+    }
+
+    @Test
+    public void testForget_ThenQueriedAgain() {
+        Mockito.when(userRepository.existsById(5L))
+                .thenReturn(true, false);
+
+        assertThat(userExistenceChecker.exists(5L), is(true));
+        userExistenceChecker.forget(5L);
+
+        assertThat(userExistenceChecker.exists(5L), is(false));
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(5L);
+    }
+
+    @Test
+    public void testExists_WhenConfirmedByReplica_ThenNotRemembered() {
+        ReplicaRoutingDataSource replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica),
+                new ReadYourWritesTracker(0));
+        replicaRoutingDataSource.afterPropertiesSet();
+        Mockito.when(userRepository.existsById(5L))
+                .thenAnswer(invocation -> {
+                    TransactionSynchronizationManager.initSynchronization();
+                    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+                    replicaRoutingDataSource.getConnection();
+                    return true;
+                });
+
+        assertThat(userExistenceChecker.exists(5L), is(true));
+        resetTransaction();
+        assertThat(userExistenceChecker.exists(5L), is(true));
+
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(5L);
+    }
+
+    @Test
+    public void testExists_WhenIdAboveCapacity_ThenAlwaysQueried() {
+        Mockito.when(userRepository.existsById(500L))
+                .thenReturn(true);
+
+        assertThat(userExistenceChecker.exists(500L), is(true));
+        assertThat(userExistenceChecker.exists(500L), is(true));
+
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(500L);
+    }
+}
@@ -10,21 +10,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
 import ru.practicum.shareit.exceptions.ValidationFailException;
+import ru.practicum.shareit.invalidation.InvalidationBus;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.MultiGetDto;
+import ru.practicum.shareit.utils.Tagged;
 
+import java.util.List;
 import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private InvalidationBus invalidationBus;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
 
     private UserService userService;
 
     @BeforeEach
     public void setUserService() {
-        this.userService = new UserServiceImpl(userRepository);
+        this.userService = new UserServiceImpl(userRepository,
+                new UserExistenceChecker(userRepository, invalidationBus, transactionManager, 1024),
+                readYourWritesTracker);
     }
 
     @Test
@@ -46,6 +60,7 @@ public class UserServiceTest {
                         .thenReturn(UserMapper.toUser(userDto));
         userService.create(userDto);
         Mockito.verify(userRepository, Mockito.times(1)).save(UserMapper.toUser(userDto));
+        Mockito.verify(readYourWritesTracker, Mockito.times(1)).recordWrite(1L);
     }
 
     @Test
@@ -104,4 +119,44 @@ public class UserServiceTest {
 
         Mockito.verify(userRepository).save(new User(1L, "Sam", "sam@ya.ru"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReadAllByIds_ThenKeepOrderAndReportMissing() {
+        Mockito.when(userRepository.findAllById(List.of(3L, 1L, 2L)))
+                .thenReturn(List.of(new User(1L, "John", "john@ya.ru"), new User(3L, "Jane", "jane@ya.ru")));
+
+        MultiGetDto<UserDto> result = userService.readAll(List.of(3L, 1L, 3L, 2L));
+
+        assertThat(result.getFound().size(), is(2));
+        assertThat(result.getFound().get(0).getId(), is(3L));
+        assertThat(result.getFound().get(1).getId(), is(1L));
+        assertThat(result.getMissing(), is(equalTo(List.of(2L))));
+    }
+
+    @Test
+    public void testReadTagged_WhenVersionChanges_ThenETagChanges() {
+        User user = new User(1L, "John", "john@ya.ru");
+        user.setVersion(0L);
+        Mockito.when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        Tagged<UserDto> first = userService.readTagged(1L);
+        Tagged<UserDto> same = userService.readTagged(1L);
+        user.setVersion(1L);
+        Tagged<UserDto> changed = userService.readTagged(1L);
+
+        assertThat(first.getBody().getName(), is(equalTo("John")));
+        assertThat(same.getETag(), is(equalTo(first.getETag())));
+        assertThat(changed.getETag(), is(not(equalTo(first.getETag()))));
+    }
+
+    @Test
+    public void testReadAllByIds_WhenNoIds_ThenThrow() {
+        ValidationFailException e = Assertions.assertThrows(
+                ValidationFailException.class,
+                () -> userService.readAll(List.of())
+        );
+
+        assertThat(e.getMessage(), is(equalTo("Parameter 'ids' must contain from 1 to 100 ids!")));
+    }
+}
@@ -4,6 +4,8 @@ drop table comments cascade;
 drop table items cascade;
 drop table item_requests cascade;
 drop table users cascade;
+drop table if exists changes cascade;
+drop table if exists change_lock cascade;
 
 -- Создание таблиц в тестовой БД
 CREATE TABLE IF NOT EXISTS USERS (
@@ -55,4 +57,26 @@ CREATE TABLE IF NOT EXISTS COMMENTS (
     created TIMESTAMP NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT fk_comment_item_id FOREIGN KEY (item_id) REFERENCES ITEMS (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_comment_item_id_created ON COMMENTS (item_id, created, id);
+
+CREATE TABLE IF NOT EXISTS CHANGES (
+    seq BIGINT GENERATED ALWAYS AS IDENTITY NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    changed TIMESTAMP NOT NULL,
+    CONSTRAINT pk_change PRIMARY KEY (seq)
+);
+
+CREATE TABLE IF NOT EXISTS CHANGE_LOCK (
+    id INT NOT NULL,
+    CONSTRAINT pk_change_lock PRIMARY KEY (id)
+);
+
+INSERT INTO CHANGE_LOCK (id) SELECT 1 WHERE NOT EXISTS (SELECT id FROM CHANGE_LOCK WHERE id = 1);
+
+ALTER TABLE USERS ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE ITEM_REQUESTS ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;